@@ -4,56 +4,525 @@
  * It distributes elements into buckets, sorts each bucket individually
  * (using insertion sort), and then concatenates the buckets.
  *
- * Recommended for sorting floating-point numbers in [0, 1).
+ * Buckets are slices of one flat primitive array: a counting pass sizes every
+ * bucket, a prefix sum turns the counts into offsets, and a scatter pass writes
+ * each value straight into its slice. Nothing is boxed and no lists are created;
+ * the scratch array and the bucket table are allocated once per sort.
+ * Bucket ranges come from the observed min/max, so any finite input works;
+ * -Infinity, +Infinity and NaN are moved to the ends the same way Arrays.sort does.
  *
  * Time Complexity:
  * - Best Case: O(n + k)
  * - Average Case: O(n + k)
- * - Worst Case: O(n^2) [if all elements go to one bucket]
+ * - Worst Case: O(n log n) [heavily skewed buckets are bucket-sorted again, up to a depth limit,
+ *   then finished with a stable merge sort]
  *
  * Space Complexity: O(n + k)
  * Stable: Depends on the bucket sorting method (here it is stable).
+ * Note: -0.0 and 0.0 compare equal and keep their relative order; NaNs are
+ * written back as the canonical NaN.
  */
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 public class BucketSort {
 
+    // Buckets at or below this size are finished with insertion sort
+    static final int INSERTION_THRESHOLD = 32;
+
+    // Larger buckets are bucket-sorted again, at most this many levels deep
+    static final int MAX_DEPTH = 4;
+
+    // Arrays smaller than this are sorted on the calling thread
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // Coarse buckets per worker in the parallel distribution pass
+    static final int BUCKETS_PER_WORKER = 64;
+
+    // --------------------------------------------------------------------------------
+    // float[]
+    // --------------------------------------------------------------------------------
+
     /**
-     * Performs bucket sort on a float array in range [0, 1).
+     * Performs bucket sort on a float array of any range.
      *
      * @param arr the array to sort
      */
     public static void bucketSort(float[] arr) {
         int n = arr.length;
-        if (n <= 0) return;
+        if (n <= 1) return;
+
+        // Step 1: Compact finite values to the front, counting the special values
+        int negInf = 0, posInf = 0, m = 0;
+        for (int i = 0; i < n; i++) {
+            float v = arr[i];
+            if (v == Float.NEGATIVE_INFINITY) negInf++;
+            else if (v == Float.POSITIVE_INFINITY) posInf++;
+            else if (v == v) arr[m++] = v;  // NaN is the only value not equal to itself
+        }
+
+        // Step 2: Bucket sort the finite values
+        sortRange(arr, 0, m, new float[m], new int[m], 0);
+
+        // Step 3: Re-create -Infinity in front, then +Infinity and NaN at the end
+        if (negInf > 0) {
+            System.arraycopy(arr, 0, arr, negInf, m);
+            Arrays.fill(arr, 0, negInf, Float.NEGATIVE_INFINITY);
+        }
+        Arrays.fill(arr, negInf + m, negInf + m + posInf, Float.POSITIVE_INFINITY);
+        Arrays.fill(arr, negInf + m + posInf, n, Float.NaN);
+    }
+
+    /**
+     * Sorts the finite values in arr[from..to) using one bucket per element.
+     * buf and table are scratch covering at least the same index range; bucket b
+     * of this range counts in table[from + b], so ranges that do not overlap can be
+     * sorted concurrently with the same scratch.
+     */
+    static void sortRange(float[] arr, int from, int to, float[] buf, int[] table, int depth) {
+        int len = to - from;
+        if (len <= INSERTION_THRESHOLD) {
+            insertionSort(arr, from, to);
+            return;
+        }
+        if (depth == MAX_DEPTH) {
+            // Still skewed after MAX_DEPTH levels: finish in O(n log n)
+            mergeSort(arr, from, to, buf);
+            return;
+        }
+
+        float min = arr[from], max = min;
+        for (int i = from + 1; i < to; i++) {
+            float v = arr[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+        }
+        if (min == max) return;
+
+        int last = len - 1;
+        double scale = len / ((double) max - min);
+
+        // Counting pass, then inclusive prefix sums: table[from + b] is one past bucket b
+        Arrays.fill(table, from, to, 0);
+        for (int i = from; i < to; i++) {
+            table[from + bucketOf(arr[i], min, scale, last)]++;
+        }
+        for (int b = from + 1; b < to; b++) {
+            table[b] += table[b - 1];
+        }
+
+        // Scatter right to left, stable
+        for (int i = to - 1; i >= from; i--) {
+            float v = arr[i];
+            buf[from + --table[from + bucketOf(v, min, scale, last)]] = v;
+        }
+        System.arraycopy(buf, from, arr, from, len);
+
+        // Finish each bucket in place; buckets are found again by value, leaving
+        // table free for the recursive calls
+        for (int i = from; i < to; ) {
+            int b = bucketOf(arr[i], min, scale, last);
+            int j = i + 1;
+            while (j < to && bucketOf(arr[j], min, scale, last) == b) j++;
+            if (j - i > 1) sortRange(arr, i, j, buf, table, depth + 1);
+            i = j;
+        }
+    }
+
+    /**
+     * Maps v into one of the buckets 0..last; monotonic in v, so buckets are ordered.
+     */
+    static int bucketOf(float v, float min, double scale, int last) {
+        int b = (int) ((v - (double) min) * scale);
+        return b > last ? last : b;
+    }
+
+    /**
+     * Sorts arr[from..to) in place using insertion sort.
+     */
+    static void insertionSort(float[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            float current = arr[i];
+            int j = i - 1;
+            while (j >= from && arr[j] > current) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = current;
+        }
+    }
+
+    /**
+     * Stable bottom-up merge sort of arr[from..to): insertion-sorted runs of
+     * INSERTION_THRESHOLD are merged pairwise, alternating between arr and buf.
+     */
+    static void mergeSort(float[] arr, int from, int to, float[] buf) {
+        for (int low = from; low < to; low += INSERTION_THRESHOLD) {
+            insertionSort(arr, low, Math.min(low + INSERTION_THRESHOLD, to));
+        }
+        float[] src = arr, dst = buf;
+        for (int width = INSERTION_THRESHOLD; width < to - from; width <<= 1) {
+            for (int low = from; low < to; low += 2 * width) {
+                int mid = Math.min(low + width, to), high = Math.min(low + 2 * width, to);
+                int i = low, j = mid, k = low;
+                while (i < mid && j < high) dst[k++] = src[j] < src[i] ? src[j++] : src[i++];
+                while (i < mid) dst[k++] = src[i++];
+                while (j < high) dst[k++] = src[j++];
+            }
+            float[] t = src; src = dst; dst = t;
+        }
+        if (src != arr) System.arraycopy(src, from, arr, from, to - from);
+    }
+
+    /**
+     * Parallel bucket sort on the common ForkJoinPool.
+     *
+     * @param arr the array to sort
+     */
+    public static void parallelBucketSort(float[] arr) {
+        parallelBucketSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel bucket sort: workers find min/max and histogram their chunk into a
+     * small number of coarse buckets, a prefix sum gives each worker its write
+     * offsets, the chunks are scattered in parallel, and the coarse buckets are
+     * then finished concurrently with the sequential engine.
+     *
+     * @param arr the array to sort
+     * @param pool the pool that runs the work
+     */
+    public static void parallelBucketSort(float[] arr, ForkJoinPool pool) {
+        int n = arr.length;
+        int workers = pool.getParallelism();
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            bucketSort(arr);
+            return;
+        }
+
+        int negInf = 0, posInf = 0, m = 0;
+        for (int i = 0; i < n; i++) {
+            float v = arr[i];
+            if (v == Float.NEGATIVE_INFINITY) negInf++;
+            else if (v == Float.POSITIVE_INFINITY) posInf++;
+            else if (v == v) arr[m++] = v;
+        }
+
+        int len = m;
+        int chunk = (len + workers - 1) / workers;
+        float[] buf = new float[len];
+        int[] table = new int[len];
+
+        // Step 1: Per-worker min/max
+        float[] mins = new float[workers];
+        float[] maxs = new float[workers];
+        RadixSort.runChunks(pool, workers, w -> {
+            float lo = Float.POSITIVE_INFINITY, hi = Float.NEGATIVE_INFINITY;
+            int end = Math.min(len, (w + 1) * chunk);
+            for (int i = w * chunk; i < end; i++) {
+                float v = arr[i];
+                if (v < lo) lo = v;
+                if (v > hi) hi = v;
+            }
+            mins[w] = lo;
+            maxs[w] = hi;
+        });
+        float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+        for (int w = 0; w < workers; w++) {
+            min = Math.min(min, mins[w]);
+            max = Math.max(max, maxs[w]);
+        }
+
+        if (len > 1 && min != max) {
+            int k = workers * BUCKETS_PER_WORKER;
+            int last = k - 1;
+            double scale = k / ((double) max - min);
+            float lo = min;
+
+            // Step 2: Per-worker histograms over the coarse buckets
+            int[][] counts = new int[workers][k];
+            RadixSort.runChunks(pool, workers, w -> {
+                int[] local = counts[w];
+                int end = Math.min(len, (w + 1) * chunk);
+                for (int i = w * chunk; i < end; i++) {
+                    local[bucketOf(arr[i], lo, scale, last)]++;
+                }
+            });
+
+            // Step 3: Prefix-sum merge into per-worker write offsets
+            int[] start = new int[k + 1];
+            int sum = 0;
+            for (int b = 0; b < k; b++) {
+                start[b] = sum;
+                for (int w = 0; w < workers; w++) {
+                    int c = counts[w][b];
+                    counts[w][b] = sum;
+                    sum += c;
+                }
+            }
+            start[k] = len;
+
+            // Step 4: Parallel scatter, then copy back
+            RadixSort.runChunks(pool, workers, w -> {
+                int[] offsets = counts[w];
+                int end = Math.min(len, (w + 1) * chunk);
+                for (int i = w * chunk; i < end; i++) {
+                    float v = arr[i];
+                    buf[offsets[bucketOf(v, lo, scale, last)]++] = v;
+                }
+            });
+            System.arraycopy(buf, 0, arr, 0, len);
+
+            // Step 5: Finish the coarse buckets concurrently
+            RadixSort.runChunks(pool, k, b -> {
+                if (start[b + 1] - start[b] > 1) sortRange(arr, start[b], start[b + 1], buf, table, 1);
+            });
+        }
 
-        // Step 1: Create n empty buckets (as ArrayLists)
-        @SuppressWarnings("unchecked")
-        List<Float>[] buckets = new ArrayList[n];
+        if (negInf > 0) {
+            System.arraycopy(arr, 0, arr, negInf, m);
+            Arrays.fill(arr, 0, negInf, Float.NEGATIVE_INFINITY);
+        }
+        Arrays.fill(arr, negInf + m, negInf + m + posInf, Float.POSITIVE_INFINITY);
+        Arrays.fill(arr, negInf + m + posInf, n, Float.NaN);
+    }
+
+    // --------------------------------------------------------------------------------
+    // double[]
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Performs bucket sort on a double array of any range.
+     *
+     * @param arr the array to sort
+     */
+    public static void bucketSort(double[] arr) {
+        int n = arr.length;
+        if (n <= 1) return;
 
+        int negInf = 0, posInf = 0, m = 0;
         for (int i = 0; i < n; i++) {
-            buckets[i] = new ArrayList<>();
+            double v = arr[i];
+            if (v == Double.NEGATIVE_INFINITY) negInf++;
+            else if (v == Double.POSITIVE_INFINITY) posInf++;
+            else if (v == v) arr[m++] = v;
+        }
+
+        sortRange(arr, 0, m, new double[m], new int[m], 0);
+
+        if (negInf > 0) {
+            System.arraycopy(arr, 0, arr, negInf, m);
+            Arrays.fill(arr, 0, negInf, Double.NEGATIVE_INFINITY);
+        }
+        Arrays.fill(arr, negInf + m, negInf + m + posInf, Double.POSITIVE_INFINITY);
+        Arrays.fill(arr, negInf + m + posInf, n, Double.NaN);
+    }
+
+    /**
+     * Sorts the finite values in arr[from..to); see the float[] overload.
+     */
+    static void sortRange(double[] arr, int from, int to, double[] buf, int[] table, int depth) {
+        int len = to - from;
+        if (len <= INSERTION_THRESHOLD) {
+            insertionSort(arr, from, to);
+            return;
+        }
+        if (depth == MAX_DEPTH) {
+            mergeSort(arr, from, to, buf);
+            return;
+        }
+
+        double min = arr[from], max = min;
+        for (int i = from + 1; i < to; i++) {
+            double v = arr[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+        }
+        if (min == max) return;
+
+        int last = len - 1;
+        double f = spanFactor(min, max);
+        double scale = len / (max * f - min * f);
+
+        Arrays.fill(table, from, to, 0);
+        for (int i = from; i < to; i++) {
+            table[from + bucketOf(arr[i], min, f, scale, last)]++;
+        }
+        for (int b = from + 1; b < to; b++) {
+            table[b] += table[b - 1];
+        }
+
+        for (int i = to - 1; i >= from; i--) {
+            double v = arr[i];
+            buf[from + --table[from + bucketOf(v, min, f, scale, last)]] = v;
+        }
+        System.arraycopy(buf, from, arr, from, len);
+
+        for (int i = from; i < to; ) {
+            int b = bucketOf(arr[i], min, f, scale, last);
+            int j = i + 1;
+            while (j < to && bucketOf(arr[j], min, f, scale, last) == b) j++;
+            if (j - i > 1) sortRange(arr, i, j, buf, table, depth + 1);
+            i = j;
+        }
+    }
+
+    /**
+     * Returns 0.5 when max - min overflows to infinity (both ends are halved), else 1.
+     */
+    static double spanFactor(double min, double max) {
+        return Double.isInfinite(max - min) ? 0.5 : 1.0;
+    }
+
+    /**
+     * Maps v into one of the buckets 0..last; f is the factor from spanFactor.
+     */
+    static int bucketOf(double v, double min, double f, double scale, int last) {
+        int b = (int) ((v * f - min * f) * scale);
+        return b > last ? last : b;
+    }
+
+    /**
+     * Sorts arr[from..to) in place using insertion sort.
+     */
+    static void insertionSort(double[] arr, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            double current = arr[i];
+            int j = i - 1;
+            while (j >= from && arr[j] > current) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = current;
+        }
+    }
+
+    /**
+     * Stable bottom-up merge sort of arr[from..to); see the float[] overload.
+     */
+    static void mergeSort(double[] arr, int from, int to, double[] buf) {
+        for (int low = from; low < to; low += INSERTION_THRESHOLD) {
+            insertionSort(arr, low, Math.min(low + INSERTION_THRESHOLD, to));
         }
+        double[] src = arr, dst = buf;
+        for (int width = INSERTION_THRESHOLD; width < to - from; width <<= 1) {
+            for (int low = from; low < to; low += 2 * width) {
+                int mid = Math.min(low + width, to), high = Math.min(low + 2 * width, to);
+                int i = low, j = mid, k = low;
+                while (i < mid && j < high) dst[k++] = src[j] < src[i] ? src[j++] : src[i++];
+                while (i < mid) dst[k++] = src[i++];
+                while (j < high) dst[k++] = src[j++];
+            }
+            double[] t = src; src = dst; dst = t;
+        }
+        if (src != arr) System.arraycopy(src, from, arr, from, to - from);
+    }
+
+    /**
+     * Parallel bucket sort on the common ForkJoinPool.
+     *
+     * @param arr the array to sort
+     */
+    public static void parallelBucketSort(double[] arr) {
+        parallelBucketSort(arr, ForkJoinPool.commonPool());
+    }
 
-        // Step 2: Distribute input array values into buckets
-        for (float value : arr) {
-            int bucketIndex = (int) (value * n);  // index = value * size
-            buckets[bucketIndex].add(value);
+    /**
+     * Parallel bucket sort for double arrays; see the float[] overload.
+     *
+     * @param arr the array to sort
+     * @param pool the pool that runs the work
+     */
+    public static void parallelBucketSort(double[] arr, ForkJoinPool pool) {
+        int n = arr.length;
+        int workers = pool.getParallelism();
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            bucketSort(arr);
+            return;
         }
 
-        // Step 3: Sort individual buckets using insertion sort
+        int negInf = 0, posInf = 0, m = 0;
         for (int i = 0; i < n; i++) {
-            Collections.sort(buckets[i]);  // using Java's built-in sort (can replace with insertion sort)
+            double v = arr[i];
+            if (v == Double.NEGATIVE_INFINITY) negInf++;
+            else if (v == Double.POSITIVE_INFINITY) posInf++;
+            else if (v == v) arr[m++] = v;
+        }
+
+        int len = m;
+        int chunk = (len + workers - 1) / workers;
+        double[] buf = new double[len];
+        int[] table = new int[len];
+
+        double[] mins = new double[workers];
+        double[] maxs = new double[workers];
+        RadixSort.runChunks(pool, workers, w -> {
+            double lo = Double.POSITIVE_INFINITY, hi = Double.NEGATIVE_INFINITY;
+            int end = Math.min(len, (w + 1) * chunk);
+            for (int i = w * chunk; i < end; i++) {
+                double v = arr[i];
+                if (v < lo) lo = v;
+                if (v > hi) hi = v;
+            }
+            mins[w] = lo;
+            maxs[w] = hi;
+        });
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for (int w = 0; w < workers; w++) {
+            min = Math.min(min, mins[w]);
+            max = Math.max(max, maxs[w]);
         }
 
-        // Step 4: Concatenate all buckets into original array
-        int index = 0;
-        for (List<Float> bucket : buckets) {
-            for (float value : bucket) {
-                arr[index++] = value;
+        if (len > 1 && min != max) {
+            int k = workers * BUCKETS_PER_WORKER;
+            int last = k - 1;
+            double f = spanFactor(min, max);
+            double scale = k / (max * f - min * f);
+            double lo = min;
+
+            int[][] counts = new int[workers][k];
+            RadixSort.runChunks(pool, workers, w -> {
+                int[] local = counts[w];
+                int end = Math.min(len, (w + 1) * chunk);
+                for (int i = w * chunk; i < end; i++) {
+                    local[bucketOf(arr[i], lo, f, scale, last)]++;
+                }
+            });
+
+            int[] start = new int[k + 1];
+            int sum = 0;
+            for (int b = 0; b < k; b++) {
+                start[b] = sum;
+                for (int w = 0; w < workers; w++) {
+                    int c = counts[w][b];
+                    counts[w][b] = sum;
+                    sum += c;
+                }
             }
+            start[k] = len;
+
+            RadixSort.runChunks(pool, workers, w -> {
+                int[] offsets = counts[w];
+                int end = Math.min(len, (w + 1) * chunk);
+                for (int i = w * chunk; i < end; i++) {
+                    double v = arr[i];
+                    buf[offsets[bucketOf(v, lo, f, scale, last)]++] = v;
+                }
+            });
+            System.arraycopy(buf, 0, arr, 0, len);
+
+            RadixSort.runChunks(pool, k, b -> {
+                if (start[b + 1] - start[b] > 1) sortRange(arr, start[b], start[b + 1], buf, table, 1);
+            });
+        }
+
+        if (negInf > 0) {
+            System.arraycopy(arr, 0, arr, negInf, m);
+            Arrays.fill(arr, 0, negInf, Double.NEGATIVE_INFINITY);
         }
+        Arrays.fill(arr, negInf + m, negInf + m + posInf, Double.POSITIVE_INFINITY);
+        Arrays.fill(arr, negInf + m + posInf, n, Double.NaN);
     }
 
     /**
@@ -79,5 +548,10 @@ public class BucketSort {
 
         System.out.println("Sorted array using Bucket Sort:");
         printArray(arr);
+
+        float[] wide = {12.5f, -3.25f, Float.NaN, 1e30f, -7f, Float.NEGATIVE_INFINITY, 0f};
+        bucketSort(wide);
+        System.out.println("Sorted array outside [0, 1) using Bucket Sort:");
+        printArray(wide);
     }
 }
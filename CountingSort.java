@@ -2,56 +2,276 @@
  * CountingSort.java
  *
  * This class implements the Counting Sort algorithm.
- * It's efficient for sorting non-negative integers where the maximum value (k) is not significantly greater than the array length (n).
+ * It's efficient for sorting integers whose range (max - min) is not significantly greater than the array length (n).
+ *
+ * The count table is sized from max - min, so negative values are supported and a single
+ * large value does not force a huge table. When the range is too wide compared to n
+ * (see isCountingWorthwhile), the sort switches to RadixSort or to Introsort instead.
  *
  * Time Complexity:
- * - Best, Average, Worst Case: O(n + k) where k is the maximum element value
+ * - Best, Average, Worst Case: O(n + k) where k = max - min + 1
  *
- * Space Complexity: O(n + k)
+ * Space Complexity: O(n + k) [O(k) for countSortUnstable]; the overloads taking a
+ * SortContext borrow both buffers from it instead of allocating
  * Stable: Yes (this version preserves the order of equal elements)
- * Limitation: Only works with non-negative integers (extendable to negatives with adjustments)
  */
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
 public class CountingSort {
 
+    // Largest count table the engine will allocate (64 MB of ints)
+    static final int MAX_TABLE_SIZE = 1 << 24;
+
+    // Counting is used only while k <= RANGE_FACTOR * n
+    static final int RANGE_FACTOR = 4;
+
+    // Below this length a comparison sort beats radix sort as the fallback
+    static final int SMALL_ARRAY = 256;
+
+    // Arrays smaller than this are histogrammed on the calling thread
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
     /**
-     * Sorts a non-negative integer array using Counting Sort.
+     * Sorts an integer array using Counting Sort, falling back to another engine
+     * when the value range would waste memory.
      *
      * @param inputArr the array to be sorted
      */
     public static void countSort(int[] inputArr) {
+        countSort(inputArr, new SortContext());
+    }
+
+    /**
+     * Stable Counting Sort whose count table and output buffer come from ctx,
+     * so repeated sorts allocate nothing once the context has grown.
+     *
+     * @param inputArr the array to be sorted
+     * @param ctx supplies the scratch buffers
+     */
+    public static void countSort(int[] inputArr, SortContext ctx) {
+        countSort(inputArr, ctx, SortListener.NONE);
+    }
+
+    /**
+     * Same as countSort(inputArr, ctx), reporting the histogram (including the
+     * min/max scan), prefix-sum and scatter phases, moves and scratch growth to
+     * listener. When the range is too wide, the fallback engine reports instead.
+     *
+     * @param inputArr the array to be sorted
+     * @param ctx supplies the scratch buffers
+     * @param listener receives the metrics
+     */
+    public static void countSort(int[] inputArr, SortContext ctx, SortListener listener) {
         int n = inputArr.length;
 
-        if (n == 0) return;
+        if (n < 2) return;
 
-        // Step 1: Find the maximum element
-        int max = inputArr[0];
+        long retained = ctx.retainedBytes();
+        long time = listener.clock();
+
+        // Step 1: Find the minimum and maximum elements
+        int min = inputArr[0], max = inputArr[0];
         for (int x : inputArr) {
-            max = Math.max(max, x);
+            if (x < min) min = x;
+            else if (x > max) max = x;
+        }
+
+        long range = (long) max - min + 1;
+        if (!isCountingWorthwhile(range, n)) {
+            fallbackSort(inputArr, ctx, listener);
+            return;
         }
+        int k = (int) range;
 
-        // Step 2: Create and fill the count array (frequency of each element)
-        int[] countArr = new int[max + 1];
+        // Step 2: Create and fill the count array (frequency of each element, offset by min)
+        int[] countArr = ctx.counts(k);
         for (int i = 0; i < n; i++) {
-            countArr[inputArr[i]]++;
+            countArr[inputArr[i] - min]++;
         }
+        time = listener.lap(SortListener.Phase.HISTOGRAM, time);
 
         // Step 3: Convert count array to prefix sum (cumulative count)
-        for (int i = 1; i <= max; i++) {
+        for (int i = 1; i < k; i++) {
             countArr[i] += countArr[i - 1];
         }
+        time = listener.lap(SortListener.Phase.PREFIX_SUM, time);
 
         // Step 4: Build the output array using the count array
-        int[] outputArr = new int[n];
+        int[] outputArr = ctx.intScratch(n);
         for (int i = n - 1; i >= 0; i--) {
             int val = inputArr[i];
-            outputArr[countArr[val] - 1] = val;
-            countArr[val]--;  // Decrease count for duplicate handling
+            outputArr[countArr[val - min] - 1] = val;
+            countArr[val - min]--;  // Decrease count for duplicate handling
         }
 
         // Step 5: Copy sorted output back into the original input array
-        for (int i = 0; i < n; i++) {
-            inputArr[i] = outputArr[i];
+        System.arraycopy(outputArr, 0, inputArr, 0, n);
+        listener.lap(SortListener.Phase.SCATTER, time);
+        listener.moves(2L * n);
+        listener.allocated(ctx.retainedBytes() - retained);
+    }
+
+    /**
+     * Non-stable counting sort for plain keys: the values are rewritten straight
+     * from the counts, so no output array is needed. Equal ints are indistinguishable,
+     * so the result is identical to countSort.
+     *
+     * @param arr the array to be sorted
+     */
+    public static void countSortUnstable(int[] arr) {
+        countSortUnstable(arr, new SortContext());
+    }
+
+    /**
+     * Non-stable counting sort whose count table comes from ctx.
+     *
+     * @param arr the array to be sorted
+     * @param ctx supplies the count table
+     */
+    public static void countSortUnstable(int[] arr, SortContext ctx) {
+        int n = arr.length;
+        if (n < 2) return;
+
+        int min = arr[0], max = arr[0];
+        for (int x : arr) {
+            if (x < min) min = x;
+            else if (x > max) max = x;
+        }
+
+        long range = (long) max - min + 1;
+        if (!isCountingWorthwhile(range, n)) {
+            fallbackSort(arr, ctx);
+            return;
+        }
+
+        int k = (int) range;
+        int[] countArr = ctx.counts(k);
+        for (int x : arr) {
+            countArr[x - min]++;
+        }
+
+        // Rewrite every value as many times as it was counted
+        int index = 0;
+        for (int v = 0; v < k; v++) {
+            for (int c = countArr[v]; c > 0; c--) {
+                arr[index++] = v + min;
+            }
+        }
+    }
+
+    /**
+     * Sorts on the common ForkJoinPool; see parallelCountSort(int[], ForkJoinPool).
+     *
+     * @param arr the array to be sorted
+     */
+    public static void parallelCountSort(int[] arr) {
+        parallelCountSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Non-stable counting sort with a parallel histogram. Each worker counts its
+     * chunk into a private table; the tables are summed, and the values are then
+     * rewritten in parallel, each worker filling an equal slice of the output.
+     *
+     * @param arr the array to be sorted
+     * @param pool the pool that runs the histogram and rewrite steps
+     */
+    public static void parallelCountSort(int[] arr, ForkJoinPool pool) {
+        int n = arr.length;
+        int workers = pool.getParallelism();
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            countSortUnstable(arr);
+            return;
+        }
+
+        int chunk = (n + workers - 1) / workers;
+
+        // Step 1: Per-worker min/max
+        int[] mins = new int[workers];
+        int[] maxs = new int[workers];
+        RadixSort.runChunks(pool, workers, w -> {
+            int lo = Integer.MAX_VALUE, hi = Integer.MIN_VALUE;
+            int end = Math.min(n, (w + 1) * chunk);
+            for (int i = w * chunk; i < end; i++) {
+                int x = arr[i];
+                if (x < lo) lo = x;
+                if (x > hi) hi = x;
+            }
+            mins[w] = lo;
+            maxs[w] = hi;
+        });
+        int min = Arrays.stream(mins).min().getAsInt();
+        int max = Arrays.stream(maxs).max().getAsInt();
+
+        // Every worker holds its own table, so the budget is shared between them
+        long range = (long) max - min + 1;
+        if (!isCountingWorthwhile(range * workers, n)) {
+            RadixSort.parallelRadixSortSigned(arr, RadixSort.DEFAULT_BITS, pool);
+            return;
+        }
+        int k = (int) range;
+        int lo = min;
+
+        // Step 2: Per-worker histograms
+        int[][] counts = new int[workers][k];
+        RadixSort.runChunks(pool, workers, w -> {
+            int[] local = counts[w];
+            int end = Math.min(n, (w + 1) * chunk);
+            for (int i = w * chunk; i < end; i++) {
+                local[arr[i] - lo]++;
+            }
+        });
+
+        // Step 3: Sum the tables into start offsets for every key
+        int[] start = counts[0];
+        for (int w = 1; w < workers; w++) {
+            int[] local = counts[w];
+            for (int v = 0; v < k; v++) start[v] += local[v];
+        }
+        RadixSort.toOffsets(start);
+
+        // Step 4: Rewrite the values in parallel, one slice of output per worker.
+        // Splitting by position rather than by key keeps skewed inputs balanced;
+        // each worker finds the key that covers its first slot by binary search.
+        RadixSort.runChunks(pool, workers, w -> {
+            int from = Math.min(n, w * chunk);
+            int to = Math.min(n, (w + 1) * chunk);
+            int v = MergeSort.upperBound(start, 0, k, from) - 1;
+            for (int i = from; i < to; v++) {
+                int end = Math.min(to, v + 1 < k ? start[v + 1] : n);
+                Arrays.fill(arr, i, end, v + lo);
+                i = end;
+            }
+        });
+    }
+
+    /**
+     * Returns true when a count table of the given size is cheap compared to sorting
+     * n elements by other means: it must fit MAX_TABLE_SIZE and stay within
+     * RANGE_FACTOR times the input length (small tables are always allowed).
+     *
+     * @param range number of count slots needed (max - min + 1)
+     * @param n number of elements to sort
+     */
+    public static boolean isCountingWorthwhile(long range, int n) {
+        return range <= MAX_TABLE_SIZE && (range <= 1024 || range <= (long) RANGE_FACTOR * n);
+    }
+
+    /**
+     * Sorts arr when counting would waste memory: Introsort for small arrays,
+     * the binary LSD radix engine otherwise.
+     */
+    static void fallbackSort(int[] arr, SortContext ctx) {
+        fallbackSort(arr, ctx, SortListener.NONE);
+    }
+
+    static void fallbackSort(int[] arr, SortContext ctx, SortListener listener) {
+        if (arr.length < SMALL_ARRAY) {
+            QuickSort.quickSortIntro(arr, 0, arr.length - 1, listener);
+        } else {
+            RadixSort.radixSortSigned(arr, RadixSort.DEFAULT_BITS, ctx, listener);
         }
     }
 
@@ -78,5 +298,10 @@ public class CountingSort {
 
         System.out.println("Sorted array:");
         printArray(arr);
+
+        int[] wide = {4, -2, Integer.MAX_VALUE, 8, -3, 3, 1};
+        countSort(wide);
+        System.out.println("Sorted array with negatives and a huge value:");
+        printArray(wide);
     }
 }
@@ -0,0 +1,583 @@
+/**
+ * ExternalSort.java
+ *
+ * External merge sort for binary files of fixed-width keys (int or long) that
+ * are larger than the heap.
+ *
+ * 1. Run generation: the input is mapped window by window (FileChannel/MappedByteBuffer),
+ *    each window is sorted in memory with RadixSort.parallelRadixSortSigned and written
+ *    to a temp file. Two run buffers alternate, so a run is written on a background
+ *    thread while the next one is read and sorted.
+ * 2. Intermediate merges: once more than fanIn runs are waiting, a background merger
+ *    combines the oldest fanIn runs while run generation continues.
+ * 3. Final merge: the remaining runs are merged into the output with a loser tree,
+ *    reading and writing through large direct ByteBuffers.
+ *
+ * Time Complexity: O(n log n) comparisons in the merge, O(n) per pass of I/O
+ * Space Complexity: memoryBudgetBytes of heap, temp disk up to about the input size
+ * Stable: Not applicable (records are bare keys)
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+public class ExternalSort {
+
+    /**
+     * Tuning knobs for an external sort. Setters return this so calls can be chained.
+     */
+    public static class Options {
+        long memoryBudgetBytes = 256L << 20;
+        long tempBudgetBytes = Long.MAX_VALUE;
+        Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"));
+        int ioBufferBytes = 1 << 20;
+        int fanIn = 64;
+        ByteOrder order = ByteOrder.BIG_ENDIAN;
+
+        /** Heap used for run buffers (two runs plus the radix scratch buffer). */
+        public Options memoryBudgetBytes(long bytes) {
+            if (bytes < 3L * Long.BYTES) throw new IllegalArgumentException("Memory budget too small: " + bytes);
+            this.memoryBudgetBytes = bytes;
+            return this;
+        }
+
+        /** Maximum bytes of temp files alive at any time; exceeding it fails the sort. */
+        public Options tempBudgetBytes(long bytes) {
+            this.tempBudgetBytes = bytes;
+            return this;
+        }
+
+        /** Directory for the temp run files. */
+        public Options tempDir(Path dir) {
+            this.tempDir = dir;
+            return this;
+        }
+
+        /** Size of each direct ByteBuffer used to read or write a run. */
+        public Options ioBufferBytes(int bytes) {
+            if (bytes < Long.BYTES) throw new IllegalArgumentException("I/O buffer too small: " + bytes);
+            this.ioBufferBytes = bytes - bytes % Long.BYTES;
+            return this;
+        }
+
+        /** Maximum number of runs merged at once. */
+        public Options fanIn(int runs) {
+            if (runs < 2) throw new IllegalArgumentException("Fan-in must be at least 2: " + runs);
+            this.fanIn = runs;
+            return this;
+        }
+
+        /** Byte order of the keys in the input, temp and output files. */
+        public Options order(ByteOrder order) {
+            this.order = order;
+            return this;
+        }
+    }
+
+    /**
+     * Sorts a file of 4-byte signed ints into output.
+     *
+     * @param input the file to read
+     * @param output the file to create or overwrite
+     * @param options budgets and tuning
+     */
+    public static void sortInts(Path input, Path output, Options options) throws IOException {
+        sort(input, output, Integer.BYTES, options);
+    }
+
+    /**
+     * Sorts a file of 8-byte signed longs into output.
+     *
+     * @param input the file to read
+     * @param output the file to create or overwrite
+     * @param options budgets and tuning
+     */
+    public static void sortLongs(Path input, Path output, Options options) throws IOException {
+        sort(input, output, Long.BYTES, options);
+    }
+
+    static void sort(Path input, Path output, int width, Options options) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size % width != 0) {
+                throw new IOException("File size " + size + " is not a multiple of the record width " + width);
+            }
+            long records = size / width;
+
+            // Two run buffers and the radix scratch buffer share the memory budget
+            int runRecords = (int) Math.min(Integer.MAX_VALUE / width, Math.max(1, options.memoryBudgetBytes / (3L * width)));
+
+            // Everything fits in memory: one run, written straight to the output
+            if (records <= runRecords) {
+                Object run = readRun(in, 0, (int) records, width, options.order, null);
+                writeRun(run, (int) records, output, width, options);
+                return;
+            }
+
+            try (RunSet runs = new RunSet(width, options)) {
+                generateRuns(in, records, runRecords, runs);
+                runs.finalMerge(output);
+            }
+        }
+    }
+
+    /**
+     * Reads, sorts and writes one run per window of the input. Writing happens on
+     * the run set's writer thread, so run i is written while run i + 1 is sorted.
+     */
+    static void generateRuns(FileChannel in, long records, int runRecords, RunSet runs) throws IOException {
+        Object[] buffers = new Object[2];
+        List<Future<?>> writes = new ArrayList<>();
+
+        int index = 0;
+        for (long start = 0; start < records; start += runRecords, index++) {
+            int count = (int) Math.min(runRecords, records - start);
+            int slot = index & 1;
+
+            // The buffer in this slot is free once the write from two runs ago is done
+            if (index >= 2) await(writes.get(index - 2));
+
+            Object buffer = readRun(in, start, count, runs.width, runs.options.order, buffers[slot]);
+            buffers[slot] = buffer;
+            writes.add(runs.writeAsync(buffer, count));
+        }
+        for (Future<?> write : writes) await(write);
+    }
+
+    /**
+     * Maps records [start, start + count) of the input and copies them into a sorted
+     * int[] or long[] of exactly count elements (reusing buffer when it fits).
+     */
+    static Object readRun(FileChannel in, long start, int count, int width, ByteOrder order, Object buffer)
+            throws IOException {
+        MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, start * width, (long) count * width);
+        window.order(order);
+        if (width == Integer.BYTES) {
+            int[] run = buffer instanceof int[] && ((int[]) buffer).length == count ? (int[]) buffer : new int[count];
+            window.asIntBuffer().get(run, 0, count);
+            RadixSort.parallelRadixSortSigned(run);
+            return run;
+        }
+        long[] run = buffer instanceof long[] && ((long[]) buffer).length == count ? (long[]) buffer : new long[count];
+        window.asLongBuffer().get(run, 0, count);
+        RadixSort.parallelRadixSortSigned(run);
+        return run;
+    }
+
+    /**
+     * Writes the first count keys of an int[] or long[] run to path through a direct buffer.
+     */
+    static void writeRun(Object run, int count, Path path, int width, Options options) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(options.ioBufferBytes).order(options.order);
+        int perBuffer = options.ioBufferBytes / width;
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int from = 0; from < count; from += perBuffer) {
+                int len = Math.min(perBuffer, count - from);
+                buffer.clear();
+                if (width == Integer.BYTES) {
+                    buffer.asIntBuffer().put((int[]) run, from, len);
+                } else {
+                    buffer.asLongBuffer().put((long[]) run, from, len);
+                }
+                buffer.limit(len * width);
+                while (buffer.hasRemaining()) out.write(buffer);
+            }
+        }
+    }
+
+    static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a background run task", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Background run task failed", cause);
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // Temp runs: budget accounting, background writes and merges
+    // --------------------------------------------------------------------------------
+
+    /**
+     * The temp run files of one sort, plus the writer and merger threads.
+     */
+    static class RunSet implements AutoCloseable {
+        final int width;
+        final Options options;
+        private final List<Path> pending = new ArrayList<>();
+        private final List<Future<?>> merges = new ArrayList<>();
+        private final ExecutorService writer = Executors.newSingleThreadExecutor(daemon("external-sort-writer"));
+        private final ExecutorService merger = Executors.newSingleThreadExecutor(daemon("external-sort-merger"));
+        private long tempBytes;
+
+        // Runs claimed by merges that are scheduled but not started
+        private int reserved;
+
+        RunSet(int width, Options options) {
+            this.width = width;
+            this.options = options;
+        }
+
+        /**
+         * Writes a sorted run on the writer thread and schedules an intermediate
+         * merge when enough runs have piled up.
+         */
+        Future<?> writeAsync(Object run, int count) {
+            return writer.submit(() -> {
+                Path path = newTempFile((long) count * width);
+                try {
+                    writeRun(run, count, path, width, options);
+                } catch (IOException | RuntimeException e) {
+                    deleteAfterFailure(path, e);
+                    throw e;
+                }
+                added(path);
+                return null;
+            });
+        }
+
+        private synchronized void added(Path run) {
+            pending.add(run);
+            if (pending.size() - reserved >= 2 * options.fanIn) {
+                // The group is taken when the merge starts, so a merge dropped by
+                // close() leaves its runs in pending to be deleted
+                reserved += options.fanIn;
+                merges.add(merger.submit(() -> {
+                    List<Path> group;
+                    synchronized (this) {
+                        group = takeOldest(options.fanIn);
+                        reserved -= options.fanIn;
+                    }
+                    mergeIntoRun(group);
+                    return null;
+                }));
+            }
+        }
+
+        private synchronized List<Path> takeOldest(int count) {
+            List<Path> group = new ArrayList<>(pending.subList(0, count));
+            pending.subList(0, count).clear();
+            return group;
+        }
+
+        /**
+         * Merges a group taken from pending into a new run. The group is no longer
+         * tracked by pending, so on failure its runs and the partial output are
+         * deleted here.
+         */
+        private void mergeIntoRun(List<Path> group) throws IOException {
+            Path merged = null;
+            try {
+                long bytes = 0;
+                for (Path run : group) bytes += Files.size(run);
+                merged = newTempFile(bytes);
+                merge(group, merged, width, options);
+            } catch (IOException | RuntimeException e) {
+                if (merged != null) deleteAfterFailure(merged, e);
+                for (Path run : group) deleteAfterFailure(run, e);
+                throw e;
+            }
+            for (Path run : group) release(run);
+            synchronized (this) {
+                pending.add(merged);
+            }
+        }
+
+        /**
+         * Waits for background merges, reduces the runs to at most fanIn, then merges
+         * them into the output file.
+         */
+        void finalMerge(Path output) throws IOException {
+            List<Future<?>> started;
+            synchronized (this) {
+                started = new ArrayList<>(merges);
+            }
+            for (Future<?> merge : started) await(merge);
+
+            while (pending.size() > options.fanIn) {
+                mergeIntoRun(takeOldest(options.fanIn));
+            }
+            merge(new ArrayList<>(pending), output, width, options);
+        }
+
+        private synchronized Path newTempFile(long bytes) throws IOException {
+            if (tempBytes + bytes > options.tempBudgetBytes) {
+                throw new IOException("Temp disk budget of " + options.tempBudgetBytes
+                        + " bytes exceeded (" + (tempBytes + bytes) + " bytes needed)");
+            }
+            tempBytes += bytes;
+            return Files.createTempFile(options.tempDir, "sort-run-", ".bin");
+        }
+
+        private void release(Path run) throws IOException {
+            long bytes = Files.size(run);
+            Files.deleteIfExists(run);
+            synchronized (this) {
+                tempBytes -= bytes;
+            }
+        }
+
+        /**
+         * Stops the writer and merger, waits until neither can create or add a run
+         * any more, then deletes the runs still pending.
+         */
+        @Override
+        public void close() throws IOException {
+            writer.shutdownNow();
+            merger.shutdownNow();
+            try {
+                awaitTermination(writer);
+                awaitTermination(merger);
+            } finally {
+                List<Path> leftovers;
+                synchronized (this) {
+                    leftovers = new ArrayList<>(pending);
+                    pending.clear();
+                }
+                for (Path run : leftovers) Files.deleteIfExists(run);
+            }
+        }
+
+        private static void awaitTermination(ExecutorService executor) throws IOException {
+            try {
+                while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // A task is still finishing its current block of I/O
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while stopping the background run tasks", e);
+            }
+        }
+
+        /**
+         * Deletes a temp file after a failed write or merge, keeping the original error.
+         */
+        private static void deleteAfterFailure(Path path, Exception failure) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+
+        private static ThreadFactory daemon(String name) {
+            return r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            };
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // k-way merge with a loser tree
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Merges sorted run files into output using a loser tree over buffered readers.
+     */
+    static void merge(List<Path> runs, Path output, int width, Options options) throws IOException {
+        int k = runs.size();
+        RunReader[] readers = new RunReader[k];
+        try (RunWriter out = new RunWriter(output, width, options)) {
+            for (int i = 0; i < k; i++) readers[i] = new RunReader(runs.get(i), width, options);
+
+            LoserTree tree = new LoserTree(readers);
+            while (tree.hasNext()) out.put(tree.next());
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) reader.close();
+            }
+        }
+    }
+
+    /**
+     * Tournament tree of losers: tree[0] is the overall winner and every internal node
+     * keeps the loser of the match played there. After the winner advances, only the
+     * log2(k) matches on its leaf-to-root path are replayed, each against a stored loser.
+     */
+    static class LoserTree {
+        private final RunReader[] sources;
+        private final int[] tree;
+        private final int k;
+
+        LoserTree(RunReader[] sources) {
+            this.sources = sources;
+            this.k = sources.length;
+            this.tree = new int[Math.max(1, k)];
+            if (k == 0) return;
+
+            // Play the initial tournament bottom-up; leaves sit at k..2k-1
+            int[] winners = new int[2 * k];
+            for (int i = 0; i < k; i++) winners[k + i] = i;
+            for (int node = k - 1; node >= 1; node--) {
+                int a = winners[2 * node], b = winners[2 * node + 1];
+                if (beats(a, b)) {
+                    winners[node] = a;
+                    tree[node] = b;
+                } else {
+                    winners[node] = b;
+                    tree[node] = a;
+                }
+            }
+            tree[0] = k == 1 ? 0 : winners[1];
+        }
+
+        boolean hasNext() {
+            return k > 0 && !sources[tree[0]].exhausted;
+        }
+
+        long next() throws IOException {
+            int winner = tree[0];
+            long key = sources[winner].head;
+            sources[winner].advance();
+
+            // Replay the winner's path against the stored losers
+            for (int node = (winner + k) >> 1; node >= 1; node >>= 1) {
+                if (beats(tree[node], winner)) {
+                    int t = tree[node];
+                    tree[node] = winner;
+                    winner = t;
+                }
+            }
+            tree[0] = winner;
+            return key;
+        }
+
+        private boolean beats(int a, int b) {
+            RunReader x = sources[a], y = sources[b];
+            if (x.exhausted) return false;
+            if (y.exhausted) return true;
+            return x.head < y.head || (x.head == y.head && a < b);
+        }
+    }
+
+    /**
+     * Sequential reader of a run file through a direct ByteBuffer.
+     * head holds the current key (ints are widened to long).
+     */
+    static class RunReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int width;
+        long head;
+        boolean exhausted;
+
+        RunReader(Path path, int width, Options options) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(options.ioBufferBytes).order(options.order);
+            this.width = width;
+            buffer.flip();
+            advance();
+        }
+
+        void advance() throws IOException {
+            if (buffer.remaining() < width) {
+                // Keep any partial record, then refill until the buffer is full or the file ends
+                buffer.compact();
+                while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                    // read() returns -1 at end of file
+                }
+                buffer.flip();
+                if (buffer.remaining() < width) {
+                    exhausted = true;
+                    return;
+                }
+            }
+            head = width == Integer.BYTES ? buffer.getInt() : buffer.getLong();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Sequential writer of keys through a direct ByteBuffer.
+     */
+    static class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int width;
+
+        RunWriter(Path path, int width, Options options) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(options.ioBufferBytes).order(options.order);
+            this.width = width;
+        }
+
+        void put(long key) throws IOException {
+            if (buffer.remaining() < width) flush();
+            if (width == Integer.BYTES) buffer.putInt((int) key);
+            else buffer.putLong(key);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    // Sample usage
+    public static void main(String[] args) throws IOException {
+        int n = 1_000_000;
+        Path input = Files.createTempFile("external-sort-in-", ".bin");
+        Path output = Files.createTempFile("external-sort-out-", ".bin");
+        try {
+            // Write n random ints
+            ByteBuffer data = ByteBuffer.allocate(n * Integer.BYTES);
+            java.util.Random random = new java.util.Random(42);
+            for (int i = 0; i < n; i++) data.putInt(random.nextInt());
+            Files.write(input, data.array());
+
+            // A 1 MB budget forces about a dozen runs and a real k-way merge
+            Options options = new Options().memoryBudgetBytes(1 << 20).ioBufferBytes(64 << 10).fanIn(4);
+            sortInts(input, output, options);
+
+            ByteBuffer sorted = ByteBuffer.wrap(Files.readAllBytes(output));
+            boolean ok = sorted.remaining() == n * Integer.BYTES;
+            int prev = Integer.MIN_VALUE;
+            while (ok && sorted.hasRemaining()) {
+                int value = sorted.getInt();
+                ok = value >= prev;
+                prev = value;
+            }
+            System.out.println("External sort of " + n + " ints sorted: " + ok);
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+}
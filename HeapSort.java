@@ -12,10 +12,22 @@
  *
  * Space Complexity: O(1) [in-place]
  * Stable: No (because it moves elements far apart)
+ *
+ * heapSortBottomUp is the tuned engine:
+ * - Sift-down is a loop that moves one value down a "hole" instead of swapping
+ * - Extraction uses Floyd's bottom-up method: descend to a leaf with one comparison
+ *   per level, then climb back up, roughly halving the comparisons
+ * - Optional d-ary layout (4 or 8 children) so the children scanned at every level
+ *   sit in 16 or 32 contiguous bytes, usually one cache line, and the heap is shallower
  */
 
+import java.util.Comparator;
+
 public class HeapSort {
 
+    // Default number of children per node for heapSortBottomUp
+    static final int DEFAULT_ARITY = 2;
+
     /**
      * Main method to perform heap sort on an array.
      *
@@ -39,6 +51,328 @@ public class HeapSort {
         }
     }
 
+    /**
+     * Sorts the subarray arr[low..high] (inclusive) using heap sort.
+     * The heap is rooted at arr[low]; used as the fallback for Introsort.
+     *
+     * @param arr the array containing the range
+     * @param low the starting index
+     * @param high the ending index
+     */
+    public static void heapSort(int[] arr, int low, int high) {
+        heapSortBottomUp(arr, low, high, DEFAULT_ARITY);
+    }
+
+    /**
+     * Sorts the whole array with the tuned binary-heap engine.
+     *
+     * @param arr the array to be sorted
+     */
+    public static void heapSortBottomUp(int[] arr) {
+        heapSortBottomUp(arr, 0, arr.length - 1, DEFAULT_ARITY);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) with a d-ary max-heap: hole-based sift-down to
+     * build the heap, then Floyd's bottom-up sift for every extraction.
+     *
+     * @param arr the array containing the range
+     * @param low the starting index
+     * @param high the ending index
+     * @param arity children per node (2 = binary; 4 or 8 = cache-friendlier)
+     */
+    public static void heapSortBottomUp(int[] arr, int low, int high, int arity) {
+        heapSortBottomUp(arr, low, high, arity, SortListener.NONE);
+    }
+
+    /**
+     * Same as heapSortBottomUp(arr, low, high, arity), reporting to listener the time
+     * spent building the heap and extracting from it, and the comparisons and moves
+     * made in each of the two phases.
+     *
+     * @param arr the array containing the range
+     * @param low the starting index
+     * @param high the ending index
+     * @param arity children per node
+     * @param listener receives the metrics
+     */
+    public static void heapSortBottomUp(int[] arr, int low, int high, int arity, SortListener listener) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+        int n = high - low + 1;
+        if (n < 2) return;
+        long time = listener.clock();
+
+        // Step 1: Build max heap, starting from the last internal node
+        long comparisons = 0, moves = 0;
+        for (int i = (n - 2) / arity; i >= 0; i--) {
+            long counts = siftDown(arr, low, n, i, arr[low + i], arity);
+            comparisons += counts >>> 32;
+            moves += (int) counts;
+        }
+        listener.comparisons(comparisons);
+        listener.moves(moves);
+        time = listener.lap(SortListener.Phase.HEAP_BUILD, time);
+
+        // Step 2: Move the root to the end and re-seat the displaced last element
+        comparisons = 0;
+        moves = n - 1;
+        for (int end = n - 1; end > 0; end--) {
+            int last = arr[low + end];
+            arr[low + end] = arr[low];
+            long counts = siftDownBottomUp(arr, low, end, last, arity);
+            comparisons += counts >>> 32;
+            moves += (int) counts;
+        }
+        listener.comparisons(comparisons);
+        listener.moves(moves);
+        listener.lap(SortListener.Phase.HEAP_EXTRACT, time);
+    }
+
+    /**
+     * Places value x into the subtree rooted at relative index i of the d-ary heap
+     * arr[base..base+n), moving larger children up into the hole instead of swapping.
+     *
+     * @return the comparisons made (high 32 bits) and the elements written (low 32 bits)
+     */
+    static long siftDown(int[] arr, int base, int n, int i, int x, int arity) {
+        int hole = i;
+        int child;
+        int comparisons = 0, moves = 1;
+        while ((child = arity * hole + 1) < n) {
+            int largest = maxChild(arr, base, n, child, arity);
+            // arity - 1 among the children (fewer at the edge), one against x
+            comparisons += Math.min(arity, n - child);
+            if (arr[base + largest] <= x) break;
+            arr[base + hole] = arr[base + largest];
+            moves++;
+            hole = largest;
+        }
+        arr[base + hole] = x;
+        return (long) comparisons << 32 | moves;
+    }
+
+    /**
+     * Floyd's bottom-up sift of value x from the root: walk the hole down to a leaf
+     * along the largest children without comparing against x, then climb back up
+     * until x fits. Most re-seated values belong near the bottom, so the climb is short.
+     *
+     * @return the comparisons made (high 32 bits) and the elements written (low 32 bits)
+     */
+    static long siftDownBottomUp(int[] arr, int base, int n, int x, int arity) {
+        int hole = 0;
+        int child;
+        int comparisons = 0, moves = 1;
+        while ((child = arity * hole + 1) < n) {
+            int largest = maxChild(arr, base, n, child, arity);
+            comparisons += Math.min(arity, n - child) - 1;
+            arr[base + hole] = arr[base + largest];
+            moves++;
+            hole = largest;
+        }
+        while (hole > 0) {
+            int parent = (hole - 1) / arity;
+            comparisons++;
+            if (arr[base + parent] >= x) break;
+            arr[base + hole] = arr[base + parent];
+            moves++;
+            hole = parent;
+        }
+        arr[base + hole] = x;
+        return (long) comparisons << 32 | moves;
+    }
+
+    /**
+     * Returns the relative index of the largest of the children starting at first.
+     */
+    static int maxChild(int[] arr, int base, int n, int first, int arity) {
+        int largest = first;
+        int end = Math.min(n, first + arity);
+        for (int c = first + 1; c < end; c++) {
+            if (arr[base + c] > arr[base + largest]) largest = c;
+        }
+        return largest;
+    }
+
+    // --------------------------------------------------------------------------------
+    // long[] and double[] versions of the bottom-up engine
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts the whole long array with the tuned binary-heap engine.
+     *
+     * @param arr the array to be sorted
+     */
+    public static void heapSortBottomUp(long[] arr) {
+        heapSortBottomUp(arr, 0, arr.length - 1, DEFAULT_ARITY);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) of longs; used as the long Introsort fallback.
+     */
+    public static void heapSort(long[] arr, int low, int high) {
+        heapSortBottomUp(arr, low, high, DEFAULT_ARITY);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) of doubles that contain no NaN; used as the
+     * double Introsort fallback, which removes NaNs and orders zeros itself.
+     */
+    static void heapSort(double[] arr, int low, int high) {
+        heapSortFinite(arr, low, high, DEFAULT_ARITY);
+    }
+
+    /**
+     * Sorts the whole double array with the tuned binary-heap engine, in the
+     * order of Double.compare (-0.0 before 0.0, NaN last).
+     *
+     * @param arr the array to be sorted
+     */
+    public static void heapSortBottomUp(double[] arr) {
+        heapSortBottomUp(arr, 0, arr.length - 1, DEFAULT_ARITY);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) of doubles in the order of Double.compare.
+     * As in QuickSort.quickSortIntro(double[], ...), NaNs are moved to the end first,
+     * the rest is heap sorted with plain comparisons, and the zeros are then
+     * rewritten with -0.0 first.
+     *
+     * @param arr the array containing the range
+     * @param low the starting index
+     * @param high the ending index
+     * @param arity children per node
+     */
+    public static void heapSortBottomUp(double[] arr, int low, int high, int arity) {
+        int end = QuickSort.moveNaNsToEnd(arr, low, high);
+        heapSortFinite(arr, low, end, arity);
+        QuickSort.orderZeros(arr, low, end);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) of longs; see the int[] overload.
+     */
+    public static void heapSortBottomUp(long[] arr, int low, int high, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+        int n = high - low + 1;
+        if (n < 2) return;
+
+        // Step 1: Build max heap, starting from the last internal node
+        for (int i = (n - 2) / arity; i >= 0; i--) {
+            siftDown(arr, low, n, i, arr[low + i], arity);
+        }
+
+        // Step 2: Move the root to the end and re-seat the displaced last element
+        for (int end = n - 1; end > 0; end--) {
+            long last = arr[low + end];
+            arr[low + end] = arr[low];
+            siftDownBottomUp(arr, low, end, last, arity);
+        }
+    }
+
+    static void siftDown(long[] arr, int base, int n, int i, long x, int arity) {
+        int hole = i;
+        int child;
+        while ((child = arity * hole + 1) < n) {
+            int largest = maxChild(arr, base, n, child, arity);
+            if (arr[base + largest] <= x) break;
+            arr[base + hole] = arr[base + largest];
+            hole = largest;
+        }
+        arr[base + hole] = x;
+    }
+
+    static void siftDownBottomUp(long[] arr, int base, int n, long x, int arity) {
+        int hole = 0;
+        int child;
+        while ((child = arity * hole + 1) < n) {
+            int largest = maxChild(arr, base, n, child, arity);
+            arr[base + hole] = arr[base + largest];
+            hole = largest;
+        }
+        while (hole > 0) {
+            int parent = (hole - 1) / arity;
+            if (arr[base + parent] >= x) break;
+            arr[base + hole] = arr[base + parent];
+            hole = parent;
+        }
+        arr[base + hole] = x;
+    }
+
+    static int maxChild(long[] arr, int base, int n, int first, int arity) {
+        int largest = first;
+        int end = Math.min(n, first + arity);
+        for (int c = first + 1; c < end; c++) {
+            if (arr[base + c] > arr[base + largest]) largest = c;
+        }
+        return largest;
+    }
+
+    /**
+     * Bottom-up heap sort of arr[low..high] (inclusive) with plain comparisons; the
+     * range must contain no NaN.
+     */
+    static void heapSortFinite(double[] arr, int low, int high, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+        int n = high - low + 1;
+        if (n < 2) return;
+
+        // Step 1: Build max heap, starting from the last internal node
+        for (int i = (n - 2) / arity; i >= 0; i--) {
+            siftDown(arr, low, n, i, arr[low + i], arity);
+        }
+
+        // Step 2: Move the root to the end and re-seat the displaced last element
+        for (int end = n - 1; end > 0; end--) {
+            double last = arr[low + end];
+            arr[low + end] = arr[low];
+            siftDownBottomUp(arr, low, end, last, arity);
+        }
+    }
+
+    static void siftDown(double[] arr, int base, int n, int i, double x, int arity) {
+        int hole = i;
+        int child;
+        while ((child = arity * hole + 1) < n) {
+            int largest = maxChild(arr, base, n, child, arity);
+            if (arr[base + largest] <= x) break;
+            arr[base + hole] = arr[base + largest];
+            hole = largest;
+        }
+        arr[base + hole] = x;
+    }
+
+    static void siftDownBottomUp(double[] arr, int base, int n, double x, int arity) {
+        int hole = 0;
+        int child;
+        while ((child = arity * hole + 1) < n) {
+            int largest = maxChild(arr, base, n, child, arity);
+            arr[base + hole] = arr[base + largest];
+            hole = largest;
+        }
+        while (hole > 0) {
+            int parent = (hole - 1) / arity;
+            if (arr[base + parent] >= x) break;
+            arr[base + hole] = arr[base + parent];
+            hole = parent;
+        }
+        arr[base + hole] = x;
+    }
+
+    static int maxChild(double[] arr, int base, int n, int first, int arity) {
+        int largest = first;
+        int end = Math.min(n, first + arity);
+        for (int c = first + 1; c < end; c++) {
+            if (arr[base + c] > arr[base + largest]) largest = c;
+        }
+        return largest;
+    }
+
     /**
      * To heapify a subtree rooted at index i, where n is the heap size.
      *
@@ -47,27 +381,34 @@ public class HeapSort {
      * @param i the index to heapify
      */
     public static void heapify(int[] arr, int n, int i) {
-        int largest = i;        // Initialize largest as root
-        int left = 2 * i + 1;   // Left child
-        int right = 2 * i + 2;  // Right child
+        int current = arr[i];  // Value being sifted down; its slot is the "hole"
 
-        // If left child is larger than root
-        if (left < n && arr[left] > arr[largest]) {
-            largest = left;
-        }
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;   // Left child
+            int right = 2 * i + 2;  // Right child
+            int largestValue = current;
 
-        // If right child is larger than largest so far
-        if (right < n && arr[right] > arr[largest]) {
-            largest = right;
-        }
+            // If left child is larger than the sifted value
+            if (left < n && arr[left] > largestValue) {
+                largest = left;
+                largestValue = arr[left];
+            }
 
-        // If largest is not root
-        if (largest != i) {
-            swap(arr, i, largest);
+            // If right child is larger than largest so far
+            if (right < n && arr[right] > largestValue) {
+                largest = right;
+                largestValue = arr[right];
+            }
 
-            // Recursively heapify the affected subtree
-            heapify(arr, n, largest);
+            // Heap property holds: drop the value into the hole
+            if (largest == i) break;
+
+            // Move the larger child up and continue from its old slot
+            arr[i] = largestValue;
+            i = largest;
         }
+        arr[i] = current;
     }
 
     /**
@@ -83,6 +424,61 @@ public class HeapSort {
         arr[j] = temp;
     }
 
+    // --------------------------------------------------------------------------------
+    // Object version (binary heap ordered by a Comparator)
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts arr[low..high] (inclusive) by cmp with the bottom-up binary heap sort.
+     * Used by the object Introsort as its depth-limit fallback.
+     *
+     * @param arr the array to sort
+     * @param low the starting index
+     * @param high the ending index
+     * @param cmp the ordering
+     */
+    public static <T> void heapSort(T[] arr, int low, int high, Comparator<? super T> cmp) {
+        int n = high - low + 1;
+        if (n < 2) return;
+
+        for (int i = (n - 2) / 2; i >= 0; i--) {
+            siftDown(arr, low, n, i, arr[low + i], cmp);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            T last = arr[low + end];
+            arr[low + end] = arr[low];
+            siftDownBottomUp(arr, low, end, last, cmp);
+        }
+    }
+
+    static <T> void siftDown(T[] arr, int base, int n, int hole, T x, Comparator<? super T> cmp) {
+        int child;
+        while ((child = 2 * hole + 1) < n) {
+            if (child + 1 < n && cmp.compare(arr[base + child + 1], arr[base + child]) > 0) child++;
+            if (cmp.compare(arr[base + child], x) <= 0) break;
+            arr[base + hole] = arr[base + child];
+            hole = child;
+        }
+        arr[base + hole] = x;
+    }
+
+    static <T> void siftDownBottomUp(T[] arr, int base, int n, T x, Comparator<? super T> cmp) {
+        int hole = 0;
+        int child;
+        while ((child = 2 * hole + 1) < n) {
+            if (child + 1 < n && cmp.compare(arr[base + child + 1], arr[base + child]) > 0) child++;
+            arr[base + hole] = arr[base + child];
+            hole = child;
+        }
+        while (hole > 0) {
+            int parent = (hole - 1) / 2;
+            if (cmp.compare(arr[base + parent], x) >= 0) break;
+            arr[base + hole] = arr[base + parent];
+            hole = parent;
+        }
+        arr[base + hole] = x;
+    }
+
     /**
      * Utility method to print the array.
      *
@@ -106,5 +502,10 @@ public class HeapSort {
 
         System.out.println("Sorted array using Heap Sort:");
         printArray(arr);
+
+        int[] arr2 = {12, 11, 13, 5, 6, 7};
+        heapSortBottomUp(arr2, 0, arr2.length - 1, 4);
+        System.out.println("Sorted array using bottom-up 4-ary Heap Sort:");
+        printArray(arr2);
     }
 }
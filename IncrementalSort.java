@@ -0,0 +1,438 @@
+/**
+ * IncrementalSort.java
+ *
+ * A sorted int collection that absorbs appends without re-sorting what it already
+ * holds, organised like a log-structured merge (LSM) tree:
+ * 1. Inserts go into a fixed-size batch buffer
+ * 2. A full batch is sorted on its own (Sorter picks the engine) and becomes a run
+ * 3. Runs are kept oldest (largest) first; whenever a run is not at least twice
+ *    the size of the run after it, the two are merged, so there are O(log n) runs
+ * 4. Merges run on a background thread by default, so an insert never waits for
+ *    the big runs to be rewritten; ingest cost depends on the batch size only
+ *
+ * Queries (rank, count, select, range) read all runs plus the pending batch, so
+ * every inserted value is visible immediately.
+ *
+ * Time Complexity:
+ * - add: O(1) amortized, plus one batch sort per batchSize inserts
+ * - merging: O(log(n / batchSize)) amortized moves per element, done in the background
+ * - rank / count: O(r log n + b), select: O(32 r log n + 32 b)
+ *   where r = number of runs (O(log n)) and b = pending batch size
+ *
+ * Space Complexity: O(n), plus the run being built while two runs are merged
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class IncrementalSort {
+
+    /**
+     * Thread-safe sorted multiset of ints built from batched appends.
+     * Close it to stop the background merge thread.
+     */
+    public static class SortedInts implements AutoCloseable {
+
+        // Default number of inserts buffered before they are sorted into a run
+        static final int DEFAULT_BATCH_SIZE = 1 << 14;
+
+        // A run is merged with its successor unless it is at least this many times larger
+        static final int GROWTH_FACTOR = 2;
+
+        // Inserts wait for the merger once this many runs are outstanding
+        static final int MAX_RUNS = 64;
+
+        private final int[] batch;
+        private int batchCount;
+        private long size;
+
+        // Immutable runs, oldest first; replaced as a whole on every change
+        private int[][] runs = new int[0][];
+
+        private final ExecutorService merger;
+        private boolean merging;
+        private Throwable failure;
+
+        /**
+         * Creates a container with the default batch size and background merging.
+         */
+        public SortedInts() {
+            this(DEFAULT_BATCH_SIZE, true);
+        }
+
+        /**
+         * @param batchSize inserts buffered before a batch is sorted into a run
+         * @param backgroundMerge merge runs on a daemon thread (true) or inside the
+         *                        insert that completes a batch (false)
+         */
+        public SortedInts(int batchSize, boolean backgroundMerge) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+            }
+            batch = new int[batchSize];
+            merger = backgroundMerge ? Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "incremental-sort-merger");
+                thread.setDaemon(true);
+                return thread;
+            }) : null;
+        }
+
+        /**
+         * Inserts one value.
+         *
+         * @param value the value to insert
+         */
+        public synchronized void add(int value) {
+            batch[batchCount++] = value;
+            size++;
+            if (batchCount == batch.length) flush();
+        }
+
+        /**
+         * Inserts arr[from..to).
+         *
+         * @param arr the source array
+         * @param from first index (inclusive)
+         * @param to last index (exclusive)
+         */
+        public synchronized void addAll(int[] arr, int from, int to) {
+            while (from < to) {
+                int chunk = Math.min(to - from, batch.length - batchCount);
+                System.arraycopy(arr, from, batch, batchCount, chunk);
+                batchCount += chunk;
+                size += chunk;
+                from += chunk;
+                if (batchCount == batch.length) flush();
+            }
+        }
+
+        /**
+         * Adds an already sorted array as a run without copying it, e.g. the initial
+         * contents. The container takes ownership; the caller must not modify it.
+         *
+         * @param sorted values in ascending order
+         */
+        public synchronized void addSorted(int[] sorted) {
+            if (sorted.length == 0) return;
+            size += sorted.length;
+            publish(sorted);
+        }
+
+        /**
+         * Sorts the pending batch into a run, even if it is not full.
+         */
+        public synchronized void flush() {
+            if (batchCount == 0) return;
+            int[] run = Arrays.copyOf(batch, batchCount);
+            batchCount = 0;
+            Sorter.sort(run);
+            publish(run);
+        }
+
+        /**
+         * Flushes, waits for background merges and merges everything into a single run.
+         */
+        public synchronized void compact() {
+            flush();
+            awaitMerges();
+            while (runs.length > 1) {
+                int i = runs.length - 2;
+                runs = replace(runs, i, merge(runs[i], runs[i + 1]));
+            }
+        }
+
+        /**
+         * @return the number of values held, including the pending batch
+         */
+        public synchronized long size() {
+            return size;
+        }
+
+        /**
+         * @return the number of sorted runs (not counting the pending batch)
+         */
+        public synchronized int runCount() {
+            return runs.length;
+        }
+
+        /**
+         * Returns how many values are strictly less than value.
+         *
+         * @param value the probe
+         */
+        public synchronized long rank(int value) {
+            long rank = 0;
+            for (int[] run : runs) rank += MergeSort.lowerBound(run, 0, run.length, value);
+            for (int i = 0; i < batchCount; i++) {
+                if (batch[i] < value) rank++;
+            }
+            return rank;
+        }
+
+        /**
+         * Returns how many values lie in [from, to] (both inclusive).
+         *
+         * @param from smallest value counted
+         * @param to largest value counted
+         */
+        public synchronized long count(int from, int to) {
+            if (from > to) return 0;
+            long count = 0;
+            for (int[] run : runs) {
+                count += MergeSort.upperBound(run, 0, run.length, to) - MergeSort.lowerBound(run, 0, run.length, from);
+            }
+            for (int i = 0; i < batchCount; i++) {
+                int v = batch[i];
+                if (v >= from && v <= to) count++;
+            }
+            return count;
+        }
+
+        /**
+         * Returns the k-th smallest value (0-based) by binary search over the values,
+         * counting with rank; no run is materialised.
+         *
+         * @param k zero-based rank of the wanted value
+         */
+        public synchronized int select(long k) {
+            if (k < 0 || k >= size) {
+                throw new IllegalArgumentException("Rank " + k + " out of range for size " + size);
+            }
+            // Largest v with rank(v) <= k
+            long lo = Integer.MIN_VALUE, hi = Integer.MAX_VALUE;
+            while (lo < hi) {
+                long mid = (lo + hi + 1) >> 1;
+                if (rank((int) mid) <= k) lo = mid;
+                else hi = mid - 1;
+            }
+            return (int) lo;
+        }
+
+        /**
+         * Returns the values in [from, to] (both inclusive) in ascending order.
+         *
+         * @param from smallest value returned
+         * @param to largest value returned
+         */
+        public synchronized int[] range(int from, int to) {
+            if (from > to) return new int[0];
+            long total = count(from, to);
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Range too large for an array: " + total);
+            }
+
+            // Concatenate the sorted slices; run-adaptive merge sort then only merges them
+            int[] out = new int[(int) total];
+            int k = 0;
+            for (int[] run : runs) {
+                int lo = MergeSort.lowerBound(run, 0, run.length, from);
+                int hi = MergeSort.upperBound(run, lo, run.length, to);
+                System.arraycopy(run, lo, out, k, hi - lo);
+                k += hi - lo;
+            }
+            for (int i = 0; i < batchCount; i++) {
+                int v = batch[i];
+                if (v >= from && v <= to) out[k++] = v;
+            }
+            MergeSort.timSort(out);
+            return out;
+        }
+
+        /**
+         * @return every value in ascending order, after compacting into one run
+         */
+        public synchronized int[] toArray() {
+            compact();
+            return runs.length == 0 ? new int[0] : runs[0].clone();
+        }
+
+        /**
+         * Stops the background merger. Pending merges are abandoned; the values stay
+         * queryable, and later inserts merge on the calling thread.
+         */
+        @Override
+        public synchronized void close() {
+            if (merger != null && !merger.shutdownNow().isEmpty()) {
+                merging = false;  // the merge loop was queued but never started
+            }
+        }
+
+        // ----------------------------------------------------------------------------
+        // Run management
+        // ----------------------------------------------------------------------------
+
+        /**
+         * Appends a run and starts merging if the size invariant is broken.
+         * Must hold the lock.
+         */
+        private void publish(int[] run) {
+            checkFailure();
+            while (merger != null && merging && runs.length >= MAX_RUNS) {
+                waitForMerger();
+            }
+            int[][] grown = Arrays.copyOf(runs, runs.length + 1);
+            grown[runs.length] = run;
+            runs = grown;
+
+            if (mergeCandidate(runs) < 0 || merging) return;
+            if (merger == null || merger.isShutdown()) {
+                int i;
+                while ((i = mergeCandidate(runs)) >= 0) {
+                    runs = replace(runs, i, merge(runs[i], runs[i + 1]));
+                }
+            } else {
+                merging = true;
+                merger.execute(this::mergeLoop);
+            }
+        }
+
+        /**
+         * Background loop: picks a pair under the lock, merges it without the lock
+         * (queries and inserts keep running), then swaps the result in. Runs are only
+         * ever appended by other threads, so the pair keeps its index meanwhile.
+         */
+        private void mergeLoop() {
+            try {
+                while (true) {
+                    int i;
+                    int[] older, newer;
+                    synchronized (this) {
+                        i = mergeCandidate(runs);
+                        if (i < 0) {
+                            merging = false;
+                            notifyAll();
+                            return;
+                        }
+                        older = runs[i];
+                        newer = runs[i + 1];
+                    }
+                    int[] merged = merge(older, newer);
+                    synchronized (this) {
+                        runs = replace(runs, i, merged);
+                        notifyAll();
+                    }
+                }
+            } catch (Throwable t) {
+                synchronized (this) {
+                    failure = t;
+                    merging = false;
+                    notifyAll();
+                }
+            }
+        }
+
+        private void awaitMerges() {
+            while (merging) waitForMerger();
+            checkFailure();
+        }
+
+        private void waitForMerger() {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the merger", e);
+            }
+        }
+
+        private void checkFailure() {
+            if (failure != null) throw new IllegalStateException("Background merge failed", failure);
+        }
+
+        /**
+         * Returns the index i of the newest pair (runs[i], runs[i + 1]) in which the
+         * older run is less than GROWTH_FACTOR times the newer one, or -1 if the
+         * sizes already grow geometrically. Too many runs force the newest pair.
+         */
+        static int mergeCandidate(int[][] runs) {
+            for (int i = runs.length - 2; i >= 0; i--) {
+                if (runs[i].length < (long) GROWTH_FACTOR * runs[i + 1].length) return i;
+            }
+            return runs.length > MAX_RUNS ? runs.length - 2 : -1;
+        }
+
+        /**
+         * Returns a copy of runs with runs[i] and runs[i + 1] replaced by merged.
+         */
+        static int[][] replace(int[][] runs, int i, int[] merged) {
+            int[][] out = new int[runs.length - 1][];
+            System.arraycopy(runs, 0, out, 0, i);
+            out[i] = merged;
+            System.arraycopy(runs, i + 2, out, i + 1, runs.length - i - 2);
+            return out;
+        }
+    }
+
+    /**
+     * Merges two sorted runs into a new array. The smaller run is walked element by
+     * element; each one gallops (MergeSort.gallopRight) to its position in the larger
+     * run, and the stretch of the larger run in between moves with one arraycopy.
+     * Merging a small batch into a huge run is therefore close to a plain copy:
+     * O(s log(b / s)) comparisons for runs of sizes s <= b.
+     *
+     * @param older a sorted run
+     * @param newer a sorted run
+     * @return a new array holding both runs in ascending order
+     */
+    static int[] merge(int[] older, int[] newer) {
+        int[] big = older.length >= newer.length ? older : newer;
+        int[] small = big == older ? newer : older;
+        int[] out = new int[big.length + small.length];
+
+        int from = 0, k = 0;
+        for (int value : small) {
+            int len = from < big.length ? MergeSort.gallopRight(value, big, from, big.length - from, 0) : 0;
+            System.arraycopy(big, from, out, k, len);
+            k += len;
+            from += len;
+            out[k++] = value;
+        }
+        System.arraycopy(big, from, out, k, big.length - from);
+        return out;
+    }
+
+    /**
+     * Utility method to print an array.
+     *
+     * @param arr the array to print
+     */
+    public static void printArray(int[] arr) {
+        for (int val : arr) {
+            System.out.print(val + " ");
+        }
+        System.out.println();
+    }
+
+    // Sample usage
+    public static void main(String[] args) {
+        java.util.Random random = new java.util.Random(42);
+
+        try (SortedInts sorted = new SortedInts(4, true)) {
+            int[] values = {38, 27, 43, 3, 9, 82, 10, 5, 64};
+            for (int v : values) sorted.add(v);
+
+            System.out.println("Values in [5, 40]:");
+            printArray(sorted.range(5, 40));
+            System.out.println("rank(10) = " + sorted.rank(10) + ", median = " + sorted.select(sorted.size() / 2));
+        }
+
+        // Large base run plus frequent small batches
+        int[] base = random.ints(5_000_000).toArray();
+        RadixSort.radixSortSigned(base);
+        try (SortedInts sorted = new SortedInts(10_000, true)) {
+            sorted.addSorted(base);
+            List<Long> batchMicros = new ArrayList<>();
+            for (int b = 0; b < 20; b++) {
+                int[] batch = random.ints(10_000).toArray();
+                long start = System.nanoTime();
+                sorted.addAll(batch, 0, batch.length);
+                batchMicros.add((System.nanoTime() - start) / 1000);
+            }
+            System.out.println("Ingest time per 10k batch (us): " + batchMicros);
+            System.out.println("Runs: " + sorted.runCount() + ", size: " + sorted.size());
+        }
+    }
+}
@@ -0,0 +1,503 @@
+/**
+ * KWayMerge.java
+ *
+ * Merges k already sorted int[] or long[] shards into one sorted array. Each shard
+ * can be restricted to a range [from[i], to[i]); the shards need not be adjacent
+ * or even in the same array.
+ *
+ * Sequential path: a loser tree over the shards. Every internal node keeps the
+ * loser of the match played there and the current head of every shard is cached
+ * in one small array, so producing an element replays log2(k) matches that read
+ * only the tree and the head cache, never the shards themselves. For int shards a
+ * head is packed with its shard index into one long, so each match is a single
+ * comparison; the replay selects with masks instead of branches.
+ *
+ * Parallel path (co-ranking): the output is cut into one equal slice per worker.
+ * For output rank t, a binary search over key values finds the cut in every shard
+ * such that exactly t elements precede the cuts and none of them is larger than
+ * an element after the cuts; equal keys are taken in shard order. Each worker
+ * computes the cuts at both ends of its slice and merges its part of every shard
+ * into its own region of the output with a loser tree, so the workers share
+ * nothing and never synchronize.
+ *
+ * Time Complexity: O(n log k) sequential, O(n log k / p + p k log n log U)
+ *                  parallel, with U the key range (32 or 64 bits)
+ * Space Complexity: O(n) for the output, O(k) per worker
+ * Stable: Yes (equal keys come out in shard order)
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public class KWayMerge {
+
+    // Outputs smaller than this are merged on the calling thread
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Merges whole sorted shards into a new array.
+     *
+     * @param shards arrays, each sorted in ascending order
+     * @return all elements in ascending order
+     */
+    public static int[] merge(int[][] shards) {
+        return merge(shards, null, null);
+    }
+
+    /**
+     * Merges the sorted ranges shards[i][from[i]..to[i]) into a new array.
+     *
+     * @param shards arrays holding the ranges
+     * @param from first index of each range, or null for 0
+     * @param to end of each range (exclusive), or null for the shard length
+     * @return all elements of the ranges in ascending order
+     */
+    public static int[] merge(int[][] shards, int[] from, int[] to) {
+        int[] start = starts(shards.length, from);
+        int[] end = ends(shards, to);
+        int[] dst = new int[total(shards.length, start, end)];
+        mergeInto(shards, start, end, dst, 0, dst.length);
+        return dst;
+    }
+
+    /**
+     * Merges whole sorted shards on the common ForkJoinPool.
+     *
+     * @param shards arrays, each sorted in ascending order
+     * @return all elements in ascending order
+     */
+    public static int[] parallelMerge(int[][] shards) {
+        return parallelMerge(shards, null, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Merges the sorted ranges shards[i][from[i]..to[i]) using the workers of pool.
+     *
+     * @param shards arrays holding the ranges
+     * @param from first index of each range, or null for 0
+     * @param to end of each range (exclusive), or null for the shard length
+     * @param pool the pool that merges the output slices
+     * @return all elements of the ranges in ascending order
+     */
+    public static int[] parallelMerge(int[][] shards, int[] from, int[] to, ForkJoinPool pool) {
+        int k = shards.length;
+        int[] start = starts(k, from);
+        int[] end = ends(shards, to);
+        int n = total(k, start, end);
+        int[] dst = new int[n];
+
+        int workers = pool.getParallelism();
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            mergeInto(shards, start, end, dst, 0, n);
+            return dst;
+        }
+
+        RadixSort.runChunks(pool, workers, w -> {
+            long lo = (long) n * w / workers;
+            long hi = (long) n * (w + 1) / workers;
+            int[] sliceStart = coRank(shards, start, end, (int) lo);
+            int[] sliceEnd = coRank(shards, start, end, (int) hi);
+            mergeInto(shards, sliceStart, sliceEnd, dst, (int) lo, (int) (hi - lo));
+        });
+        return dst;
+    }
+
+    /**
+     * Returns the cut in every shard range such that the first rank elements of
+     * the merged output are exactly the elements before the cuts.
+     */
+    static int[] coRank(int[][] shards, int[] start, int[] end, int rank) {
+        int k = shards.length;
+        int[] cut = start.clone();
+        if (rank == 0) return cut;
+
+        // Step 1: Smallest key v with at least rank elements <= v
+        long lo = Long.MAX_VALUE, hi = Long.MIN_VALUE;
+        for (int i = 0; i < k; i++) {
+            if (start[i] == end[i]) continue;
+            lo = Math.min(lo, shards[i][start[i]]);
+            hi = Math.max(hi, shards[i][end[i] - 1]);
+        }
+        while (lo < hi) {
+            long mid = (lo + hi) >> 1;
+            long atMost = 0;
+            for (int i = 0; i < k; i++) {
+                atMost += MergeSort.upperBound(shards[i], start[i], end[i], (int) mid) - start[i];
+            }
+            if (atMost >= rank) hi = mid;
+            else lo = mid + 1;
+        }
+        int v = (int) lo;
+
+        // Step 2: Everything below v, then as many copies of v as needed in shard order
+        long need = rank;
+        for (int i = 0; i < k; i++) {
+            cut[i] = MergeSort.lowerBound(shards[i], start[i], end[i], v);
+            need -= cut[i] - start[i];
+        }
+        for (int i = 0; i < k && need > 0; i++) {
+            int equal = MergeSort.upperBound(shards[i], cut[i], end[i], v) - cut[i];
+            int take = (int) Math.min(need, equal);
+            cut[i] += take;
+            need -= take;
+        }
+        return cut;
+    }
+
+    /**
+     * Merges shards[i][pos[i]..end[i]) into dst[out .. out + count) with a loser tree.
+     * count must equal the total length of the ranges.
+     */
+    static void mergeInto(int[][] shards, int[] pos, int[] end, int[] dst, int out, int count) {
+        // Only shards with elements in range take part
+        int k = 0;
+        int[] ids = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            if (pos[i] < end[i]) ids[k++] = i;
+        }
+        if (k == 0) return;
+        if (k == 1) {
+            System.arraycopy(shards[ids[0]], pos[ids[0]], dst, out, count);
+            return;
+        }
+
+        // keys[r] packs the current head (high half) over the run's tie-break order
+        // (low half), so one long comparison orders by value, then by shard;
+        // an exhausted run gets order k + r and loses even to Integer.MAX_VALUE
+        int[][] runs = new int[k][];
+        int[] next = new int[k];
+        int[] last = new int[k];
+        long[] keys = new long[k];
+        for (int r = 0; r < k; r++) {
+            runs[r] = shards[ids[r]];
+            next[r] = pos[ids[r]];
+            last[r] = end[ids[r]];
+            keys[r] = pack(runs[r][next[r]], r);
+        }
+
+        // Initial tournament, leaves at k..2k-1 as in ExternalSort.LoserTree
+        int[] tree = new int[k];
+        int[] winners = new int[2 * k];
+        for (int r = 0; r < k; r++) winners[k + r] = r;
+        for (int node = k - 1; node >= 1; node--) {
+            int a = winners[2 * node], b = winners[2 * node + 1];
+            boolean aWins = keys[a] < keys[b];
+            winners[node] = aWins ? a : b;
+            tree[node] = aWins ? b : a;
+        }
+        int winner = winners[1];
+
+        for (int limit = out + count; out < limit; ) {
+            dst[out++] = (int) (keys[winner] >> 32);
+            keys[winner] = ++next[winner] < last[winner]
+                    ? pack(runs[winner][next[winner]], winner)
+                    : pack(Integer.MAX_VALUE, k + winner);
+
+            // Replay the winner's path against the stored losers; the masks keep it branch-free
+            long key = keys[winner];
+            for (int node = (winner + k) >> 1; node >= 1; node >>= 1) {
+                int loser = tree[node];
+                long loserKey = keys[loser];
+                int swap = -(loserKey < key ? 1 : 0);   // all ones when the stored loser wins
+                tree[node] = loser ^ ((loser ^ winner) & swap);
+                winner ^= (winner ^ loser) & swap;
+                key ^= (key ^ loserKey) & swap;
+            }
+        }
+    }
+
+    static long pack(int value, int order) {
+        return ((long) value << 32) | order;
+    }
+
+    // --------------------------------------------------------------------------------
+    // long[] shards
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Merges whole sorted long shards into a new array.
+     *
+     * @param shards arrays, each sorted in ascending order
+     * @return all elements in ascending order
+     */
+    public static long[] merge(long[][] shards) {
+        return merge(shards, null, null);
+    }
+
+    /**
+     * Merges the sorted ranges shards[i][from[i]..to[i]) into a new array.
+     *
+     * @param shards arrays holding the ranges
+     * @param from first index of each range, or null for 0
+     * @param to end of each range (exclusive), or null for the shard length
+     * @return all elements of the ranges in ascending order
+     */
+    public static long[] merge(long[][] shards, int[] from, int[] to) {
+        int[] start = starts(shards.length, from);
+        int[] end = ends(shards, to);
+        long[] dst = new long[total(shards.length, start, end)];
+        mergeInto(shards, start, end, dst, 0, dst.length);
+        return dst;
+    }
+
+    /**
+     * Merges whole sorted long shards on the common ForkJoinPool.
+     *
+     * @param shards arrays, each sorted in ascending order
+     * @return all elements in ascending order
+     */
+    public static long[] parallelMerge(long[][] shards) {
+        return parallelMerge(shards, null, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Merges the sorted ranges shards[i][from[i]..to[i]) using the workers of pool.
+     *
+     * @param shards arrays holding the ranges
+     * @param from first index of each range, or null for 0
+     * @param to end of each range (exclusive), or null for the shard length
+     * @param pool the pool that merges the output slices
+     * @return all elements of the ranges in ascending order
+     */
+    public static long[] parallelMerge(long[][] shards, int[] from, int[] to, ForkJoinPool pool) {
+        int k = shards.length;
+        int[] start = starts(k, from);
+        int[] end = ends(shards, to);
+        int n = total(k, start, end);
+        long[] dst = new long[n];
+
+        int workers = pool.getParallelism();
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            mergeInto(shards, start, end, dst, 0, n);
+            return dst;
+        }
+
+        RadixSort.runChunks(pool, workers, w -> {
+            long lo = (long) n * w / workers;
+            long hi = (long) n * (w + 1) / workers;
+            int[] sliceStart = coRank(shards, start, end, (int) lo);
+            int[] sliceEnd = coRank(shards, start, end, (int) hi);
+            mergeInto(shards, sliceStart, sliceEnd, dst, (int) lo, (int) (hi - lo));
+        });
+        return dst;
+    }
+
+    static int[] coRank(long[][] shards, int[] start, int[] end, int rank) {
+        int k = shards.length;
+        int[] cut = start.clone();
+        if (rank == 0) return cut;
+
+        long lo = Long.MAX_VALUE, hi = Long.MIN_VALUE;
+        for (int i = 0; i < k; i++) {
+            if (start[i] == end[i]) continue;
+            lo = Math.min(lo, shards[i][start[i]]);
+            hi = Math.max(hi, shards[i][end[i] - 1]);
+        }
+        while (lo < hi) {
+            // Floor of the average without overflow
+            long mid = (lo & hi) + ((lo ^ hi) >> 1);
+            long atMost = 0;
+            for (int i = 0; i < k; i++) {
+                atMost += upperBound(shards[i], start[i], end[i], mid) - start[i];
+            }
+            if (atMost >= rank) hi = mid;
+            else lo = mid + 1;
+        }
+        long v = lo;
+
+        long need = rank;
+        for (int i = 0; i < k; i++) {
+            cut[i] = lowerBound(shards[i], start[i], end[i], v);
+            need -= cut[i] - start[i];
+        }
+        for (int i = 0; i < k && need > 0; i++) {
+            int equal = upperBound(shards[i], cut[i], end[i], v) - cut[i];
+            int take = (int) Math.min(need, equal);
+            cut[i] += take;
+            need -= take;
+        }
+        return cut;
+    }
+
+    static void mergeInto(long[][] shards, int[] pos, int[] end, long[] dst, int out, int count) {
+        int k = 0;
+        int[] ids = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            if (pos[i] < end[i]) ids[k++] = i;
+        }
+        if (k == 0) return;
+        if (k == 1) {
+            System.arraycopy(shards[ids[0]], pos[ids[0]], dst, out, count);
+            return;
+        }
+
+        long[][] runs = new long[k][];
+        int[] next = new int[k];
+        int[] last = new int[k];
+        long[] heads = new long[k];
+        int[] order = new int[k];
+        for (int r = 0; r < k; r++) {
+            runs[r] = shards[ids[r]];
+            next[r] = pos[ids[r]];
+            last[r] = end[ids[r]];
+            heads[r] = runs[r][next[r]];
+            order[r] = r;
+        }
+
+        int[] tree = new int[k];
+        int[] winners = new int[2 * k];
+        for (int r = 0; r < k; r++) winners[k + r] = r;
+        for (int node = k - 1; node >= 1; node--) {
+            int a = winners[2 * node], b = winners[2 * node + 1];
+            boolean aWins = heads[a] < heads[b] || (heads[a] == heads[b] && order[a] < order[b]);
+            winners[node] = aWins ? a : b;
+            tree[node] = aWins ? b : a;
+        }
+        int winner = winners[1];
+
+        for (int limit = out + count; out < limit; ) {
+            dst[out++] = heads[winner];
+            if (++next[winner] < last[winner]) {
+                heads[winner] = runs[winner][next[winner]];
+            } else {
+                // An exhausted run loses every match, including ties with Long.MAX_VALUE
+                heads[winner] = Long.MAX_VALUE;
+                order[winner] += k;
+            }
+
+            // Non-short-circuit & and | keep the replay free of data-dependent branches
+            long key = heads[winner];
+            for (int node = (winner + k) >> 1; node >= 1; node >>= 1) {
+                int loser = tree[node];
+                long loserKey = heads[loser];
+                int swap = -(loserKey < key | loserKey == key & order[loser] < order[winner] ? 1 : 0);
+                tree[node] = loser ^ ((loser ^ winner) & swap);
+                winner ^= (winner ^ loser) & swap;
+                key ^= (key ^ loserKey) & swap;
+            }
+        }
+    }
+
+    /**
+     * Returns the first index in arr[low..high) whose value is >= key.
+     */
+    static int lowerBound(long[] arr, int low, int high, long key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first index in arr[low..high) whose value is > key.
+     */
+    static int upperBound(long[] arr, int low, int high, long key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] <= key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // --------------------------------------------------------------------------------
+    // Range arguments
+    // --------------------------------------------------------------------------------
+
+    static int[] starts(int k, int[] from) {
+        if (from == null) return new int[k];
+        if (from.length != k) {
+            throw new IllegalArgumentException("Expected " + k + " range starts, got " + from.length);
+        }
+        return from.clone();
+    }
+
+    static int[] ends(int[][] shards, int[] to) {
+        int[] lengths = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) lengths[i] = shards[i].length;
+        return ends(lengths, to);
+    }
+
+    static int[] ends(long[][] shards, int[] to) {
+        int[] lengths = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) lengths[i] = shards[i].length;
+        return ends(lengths, to);
+    }
+
+    /**
+     * Returns the range ends: to (checked against the shard lengths) or the lengths.
+     */
+    static int[] ends(int[] lengths, int[] to) {
+        if (to == null) return lengths;
+        if (to.length != lengths.length) {
+            throw new IllegalArgumentException("Expected " + lengths.length + " range ends, got " + to.length);
+        }
+        for (int i = 0; i < to.length; i++) {
+            if (to[i] > lengths[i]) {
+                throw new IllegalArgumentException("Range end " + to[i] + " past shard " + i + " of length " + lengths[i]);
+            }
+        }
+        return to.clone();
+    }
+
+    /**
+     * Checks every range and returns their total length.
+     */
+    static int total(int k, int[] start, int[] end) {
+        long total = 0;
+        for (int i = 0; i < k; i++) {
+            if (start[i] < 0 || start[i] > end[i]) {
+                throw new IllegalArgumentException("Bad range [" + start[i] + ", " + end[i] + ") in shard " + i);
+            }
+            total += end[i] - start[i];
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Merged output too large for an array: " + total);
+        }
+        return (int) total;
+    }
+
+    /**
+     * Utility method to print an array.
+     *
+     * @param arr the array to print
+     */
+    public static void printArray(int[] arr) {
+        for (int val : arr) {
+            System.out.print(val + " ");
+        }
+        System.out.println();
+    }
+
+    // Sample usage
+    public static void main(String[] args) {
+        int[][] shards = {
+            {3, 9, 27, 38},
+            {10, 43, 82},
+            {1, 2, 100},
+            {}
+        };
+
+        System.out.println("Merged shards:");
+        printArray(merge(shards));
+
+        System.out.println("Merged ranges [1, 3) of each shard:");
+        printArray(merge(new int[][] {shards[0], shards[1], shards[2]}, new int[] {1, 1, 1}, new int[] {3, 3, 3}));
+
+        java.util.Random random = new java.util.Random(42);
+        int[][] large = new int[256][];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = random.ints(100_000).sorted().toArray();
+        }
+        long start = System.nanoTime();
+        int[] sequential = merge(large);
+        long sequentialTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        int[] parallel = parallelMerge(large);
+        long parallelTime = System.nanoTime() - start;
+        System.out.printf("256 x 100k ints: loser tree %d ms, parallel %d ms, same result: %b%n",
+                sequentialTime / 1_000_000, parallelTime / 1_000_000, Arrays.equals(sequential, parallel));
+    }
+}
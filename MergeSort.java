@@ -11,10 +11,44 @@
  *
  * Space Complexity: O(n) [due to temporary arrays used for merging]
  * Stable: Yes
+ *
+ * Parallel mode (parallelMergeSort):
+ * - Splits the work on a ForkJoinPool above PARALLEL_THRESHOLD elements
+ * - Allocates a single auxiliary buffer per sort; source and destination
+ *   are swapped between levels instead of copying back after every merge
+ * - Merges the top levels in parallel by splitting both runs around a pivot
+ *
+ * Pooled scratch (mergeSort / bufferedMergeSort with a SortContext):
+ * - The merge buffer is borrowed from the context, so repeated sorts allocate nothing
+ *
+ * Objects (mergeSort(T[], Comparator) / mergeSortByKey):
+ * - Stable, same ping-pong scheme; mergeSortByKey computes each key once and
+ *   merges on the cached keys (Schwartzian transform)
+ *
+ * Run-adaptive mode (timSort):
+ * - Detects existing ascending and strictly descending runs (the latter reversed in place)
+ * - Extends short runs to a minimum length with binary insertion sort
+ * - Merges runs from a stack kept under TimSort's length invariants, galloping when
+ *   one run keeps winning; temporary storage never exceeds half the input
+ * - Already sorted or nearly sorted input costs close to O(n)
  */
 
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
 public class MergeSort {
 
+    // Subarrays smaller than this are sorted sequentially inside a task
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    // Merges smaller than this are done sequentially inside a task
+    static final int PARALLEL_MERGE_THRESHOLD = 1 << 14;
+
+    // Runs up to this size are finished with SmallSort (int[]) or insertion sort
+    static final int INSERTION_THRESHOLD = 32;
+
     /**
      * Recursively sorts an array using Merge Sort.
      *
@@ -25,6 +59,12 @@ public class MergeSort {
     public static void mergeSort(int[] arr, int low, int high) {
         if (low >= high) return;
 
+        // Small ranges go to a sorting network instead of recursing to single elements
+        if (high - low < SmallSort.NETWORK_MAX) {
+            SmallSort.sort(arr, low, high - low + 1);
+            return;
+        }
+
         int mid = (low + high) / 2;
 
         // Recursively divide and sort both halves
@@ -74,6 +114,900 @@ public class MergeSort {
         while (j < n2) arr[k++] = right[j++];
     }
 
+    /**
+     * Same as mergeSort(arr, low, high) but merges through the context's scratch
+     * buffer instead of allocating two temporary arrays per merge.
+     *
+     * @param arr the array to sort
+     * @param low the starting index
+     * @param high the ending index
+     * @param ctx supplies the scratch buffer
+     */
+    public static void mergeSort(int[] arr, int low, int high, SortContext ctx) {
+        if (low >= high) return;
+        mergeSort(arr, low, high, ctx.intScratch((high - low + 2) / 2));
+    }
+
+    static void mergeSort(int[] arr, int low, int high, int[] buffer) {
+        if (high - low < SmallSort.NETWORK_MAX) {
+            SmallSort.sort(arr, low, high - low + 1);
+            return;
+        }
+
+        int mid = (low + high) / 2;
+        mergeSort(arr, low, mid, buffer);
+        mergeSort(arr, mid + 1, high, buffer);
+        merge(arr, low, mid, high, buffer);
+    }
+
+    /**
+     * Merges arr[low..mid] and arr[mid+1..high] using buffer for the left half only.
+     * The right half is merged from where it lies, since the write position can
+     * never overtake it.
+     *
+     * @param arr the original array containing both subarrays
+     * @param low starting index of the first subarray
+     * @param mid middle index (end of the first subarray)
+     * @param high ending index of the second subarray
+     * @param buffer scratch with at least mid - low + 1 elements
+     */
+    public static void merge(int[] arr, int low, int mid, int high, int[] buffer) {
+        int n1 = mid - low + 1;
+        System.arraycopy(arr, low, buffer, 0, n1);
+
+        int i = 0, j = mid + 1, k = low;
+        while (i < n1 && j <= high) {
+            if (buffer[i] <= arr[j]) {
+                arr[k++] = buffer[i++];
+            } else {
+                arr[k++] = arr[j++];
+            }
+        }
+
+        // Leftovers of the right half are already in place
+        if (i < n1) System.arraycopy(buffer, i, arr, k, n1 - i);
+    }
+
+    // --------------------------------------------------------------------------------
+    // Parallel Merge Sort with a single reusable scratch buffer
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts the whole array using a fork/join parallel Merge Sort on the common pool.
+     *
+     * @param arr the array to sort
+     */
+    public static void parallelMergeSort(int[] arr) {
+        parallelMergeSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the whole array using a fork/join parallel Merge Sort on the given pool.
+     * The only allocation is one auxiliary buffer of the same length as arr.
+     *
+     * @param arr the array to sort
+     * @param pool the pool that runs the split and merge tasks
+     */
+    public static void parallelMergeSort(int[] arr, ForkJoinPool pool) {
+        int n = arr.length;
+        if (n < 2) return;
+
+        // Both arrays start with the same contents so either can act as source
+        int[] aux = arr.clone();
+
+        if (n < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            sortInto(aux, arr, 0, n);
+        } else {
+            pool.invoke(new SortTask(aux, arr, 0, n));
+        }
+    }
+
+    /**
+     * Sequential version of parallelMergeSort: same single scratch buffer and
+     * ping-pong merging, no fork/join tasks.
+     *
+     * @param arr the array to sort
+     */
+    public static void bufferedMergeSort(int[] arr) {
+        if (arr.length < 2) return;
+        sortInto(arr.clone(), arr, 0, arr.length);
+    }
+
+    /**
+     * Sequential buffered Merge Sort that borrows its scratch buffer from ctx,
+     * so repeated sorts do not allocate.
+     *
+     * @param arr the array to sort
+     * @param ctx supplies the scratch buffer
+     */
+    public static void bufferedMergeSort(int[] arr, SortContext ctx) {
+        int n = arr.length;
+        if (n < 2) return;
+        int[] aux = ctx.intScratch(n);
+        System.arraycopy(arr, 0, aux, 0, n);
+        sortInto(aux, arr, 0, n);
+    }
+
+    /**
+     * Same as bufferedMergeSort(arr, ctx), reporting to listener the time spent
+     * splitting (the descent plus the network-sorted leaves) and merging, the
+     * comparisons and moves made by the merges, and scratch growth.
+     *
+     * @param arr the array to sort
+     * @param ctx supplies the scratch buffer
+     * @param listener receives the metrics
+     */
+    public static void bufferedMergeSort(int[] arr, SortContext ctx, SortListener listener) {
+        int n = arr.length;
+        if (n < 2) return;
+        long retained = ctx.retainedBytes();
+        int[] aux = ctx.intScratch(n);
+        System.arraycopy(arr, 0, aux, 0, n);
+        listener.allocated(ctx.retainedBytes() - retained);
+        sortInto(aux, arr, 0, n, listener);
+    }
+
+    /**
+     * Sorts src[low..high) into dst[low..high). On entry both arrays must hold the
+     * same values in that range; src is used as scratch and left unspecified.
+     */
+    static void sortInto(int[] src, int[] dst, int low, int high) {
+        sortInto(src, dst, low, high, SortListener.NONE);
+    }
+
+    static void sortInto(int[] src, int[] dst, int low, int high, SortListener listener) {
+        if (high - low <= INSERTION_THRESHOLD) {
+            long time = listener.clock();
+            SmallSort.sort(dst, low, high - low);
+            listener.lap(SortListener.Phase.SPLIT, time);
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+
+        // Sort each half into src, then merge the halves back into dst
+        sortInto(dst, src, low, mid, listener);
+        sortInto(dst, src, mid, high, listener);
+
+        // Halves already in order: a single copy is enough
+        long time = listener.clock();
+        listener.comparisons(1);
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, low, dst, low, high - low);
+        } else {
+            listener.comparisons(mergeInto(src, low, mid, mid, high, dst, low));
+        }
+        listener.moves(high - low);
+        listener.lap(SortListener.Phase.MERGE, time);
+    }
+
+    /**
+     * Stable merge of src[lo1..hi1) and src[lo2..hi2) into dst starting at out.
+     *
+     * @return the number of comparisons made
+     */
+    static int mergeInto(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out) {
+        int i = lo1, j = lo2, k = out;
+        while (i < hi1 && j < hi2) {
+            if (src[i] <= src[j]) {
+                dst[k++] = src[i++];
+            } else {
+                dst[k++] = src[j++];
+            }
+        }
+        int comparisons = k - out;
+        if (i < hi1) System.arraycopy(src, i, dst, k, hi1 - i);
+        if (j < hi2) System.arraycopy(src, j, dst, k, hi2 - j);
+        return comparisons;
+    }
+
+    // --------------------------------------------------------------------------------
+    // long[] and double[] versions of the buffered Merge Sort
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts a long array with one scratch buffer and ping-pong merging.
+     *
+     * @param arr the array to sort
+     */
+    public static void bufferedMergeSort(long[] arr) {
+        if (arr.length < 2) return;
+        sortInto(arr.clone(), arr, 0, arr.length);
+    }
+
+    /**
+     * Sorts a long array, borrowing the scratch buffer from ctx.
+     *
+     * @param arr the array to sort
+     * @param ctx supplies the scratch buffer
+     */
+    public static void bufferedMergeSort(long[] arr, SortContext ctx) {
+        int n = arr.length;
+        if (n < 2) return;
+        long[] aux = ctx.longScratch(n);
+        System.arraycopy(arr, 0, aux, 0, n);
+        sortInto(aux, arr, 0, n);
+    }
+
+    /**
+     * Sorts a double array in the total order of Double.compare (-0.0 before 0.0,
+     * NaN last). The values are mapped to order-preserving long keys, merge sorted
+     * as longs and mapped back, so NaNs come back as the canonical NaN.
+     *
+     * @param arr the array to sort
+     */
+    public static void bufferedMergeSort(double[] arr) {
+        int n = arr.length;
+        if (n < 2) return;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = RadixSort.sortableBits(arr[i]);
+        bufferedMergeSort(keys);
+        for (int i = 0; i < n; i++) arr[i] = RadixSort.fromSortableBits(keys[i]);
+    }
+
+    static void sortInto(long[] src, long[] dst, int low, int high) {
+        if (high - low <= INSERTION_THRESHOLD) {
+            QuickSort.insertionSort(dst, low, high - 1);
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+
+        // Sort each half into src, then merge the halves back into dst
+        sortInto(dst, src, low, mid);
+        sortInto(dst, src, mid, high);
+
+        // Halves already in order: a single copy is enough
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, low, dst, low, high - low);
+            return;
+        }
+
+        mergeInto(src, low, mid, mid, high, dst, low);
+    }
+
+    static void mergeInto(long[] src, int lo1, int hi1, int lo2, int hi2, long[] dst, int out) {
+        int i = lo1, j = lo2, k = out;
+        while (i < hi1 && j < hi2) {
+            if (src[i] <= src[j]) {
+                dst[k++] = src[i++];
+            } else {
+                dst[k++] = src[j++];
+            }
+        }
+        if (i < hi1) System.arraycopy(src, i, dst, k, hi1 - i);
+        if (j < hi2) System.arraycopy(src, j, dst, k, hi2 - j);
+    }
+
+    // --------------------------------------------------------------------------------
+    // Objects ordered by a Comparator (stable)
+    // --------------------------------------------------------------------------------
+
+    // Comparator calls are expensive, so object runs switch to insertion sort earlier
+    static final int OBJECT_INSERTION_THRESHOLD = 8;
+
+    /**
+     * Stable sort of objects by cmp with the buffered ping-pong Merge Sort.
+     * Allocates one scratch array of references.
+     *
+     * @param arr the array to sort
+     * @param cmp the ordering
+     */
+    public static <T> void mergeSort(T[] arr, Comparator<? super T> cmp) {
+        if (arr.length < 2) return;
+        sortInto(arr.clone(), arr, 0, arr.length, cmp);
+    }
+
+    /**
+     * Stable sort of objects by an extracted key (Schwartzian transform): key is
+     * called exactly once per element and the merge compares the cached keys, which
+     * pays off when the key is costly to compute (parsing, string building, lookups).
+     * For primitive keys RadixSort.sortByLongKey avoids comparisons altogether.
+     *
+     * @param arr the array to sort
+     * @param key extracts the sort key
+     * @param cmp the ordering of the keys
+     */
+    public static <T, K> void mergeSortByKey(T[] arr, Function<? super T, ? extends K> key,
+                                             Comparator<? super K> cmp) {
+        int n = arr.length;
+        if (n < 2) return;
+
+        // Decorate, sort by the cached key, undecorate
+        @SuppressWarnings("unchecked")
+        Keyed<T, K>[] decorated = (Keyed<T, K>[]) new Keyed<?, ?>[n];
+        for (int i = 0; i < n; i++) decorated[i] = new Keyed<>(key.apply(arr[i]), arr[i]);
+        mergeSort(decorated, (a, b) -> cmp.compare(a.key, b.key));
+        for (int i = 0; i < n; i++) arr[i] = decorated[i].value;
+    }
+
+    /**
+     * An element paired with its precomputed key.
+     */
+    static final class Keyed<T, K> {
+        final K key;
+        final T value;
+
+        Keyed(K key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    static <T> void sortInto(T[] src, T[] dst, int low, int high, Comparator<? super T> cmp) {
+        if (high - low <= OBJECT_INSERTION_THRESHOLD) {
+            QuickSort.insertionSort(dst, low, high - 1, cmp);
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+        sortInto(dst, src, low, mid, cmp);
+        sortInto(dst, src, mid, high, cmp);
+
+        if (cmp.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dst, low, high - low);
+            return;
+        }
+
+        int i = low, j = mid, k = low;
+        while (i < mid && j < high) {
+            if (cmp.compare(src[i], src[j]) <= 0) {
+                dst[k++] = src[i++];
+            } else {
+                dst[k++] = src[j++];
+            }
+        }
+        if (i < mid) System.arraycopy(src, i, dst, k, mid - i);
+        if (j < high) System.arraycopy(src, j, dst, k, high - j);
+    }
+
+    /**
+     * Returns the first index in arr[low..high) whose value is >= key.
+     */
+    static int lowerBound(int[] arr, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first index in arr[low..high) whose value is > key.
+     */
+    static int upperBound(int[] arr, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] <= key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Fork/join task that sorts src[low..high) into dst[low..high).
+     */
+    static final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src, dst;
+        private final int low, high;
+
+        SortTask(int[] src, int[] dst, int low, int high) {
+            this.src = src;
+            this.dst = dst;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low < PARALLEL_THRESHOLD) {
+                sortInto(src, dst, low, high);
+                return;
+            }
+
+            int mid = (low + high) >>> 1;
+
+            // Sort both halves into src in parallel (roles swap at every level)
+            invokeAll(new SortTask(dst, src, low, mid), new SortTask(dst, src, mid, high));
+
+            if (src[mid - 1] <= src[mid]) {
+                System.arraycopy(src, low, dst, low, high - low);
+                return;
+            }
+
+            new MergeTask(src, low, mid, mid, high, dst, low).compute();
+        }
+    }
+
+    /**
+     * Fork/join task that merges src[lo1..hi1) and src[lo2..hi2) into dst at out.
+     * Large merges are split around the median of the longer run so that both
+     * halves can be merged independently into disjoint parts of dst.
+     */
+    static final class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src, dst;
+        private final int lo1, hi1, lo2, hi2, out;
+
+        MergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 < PARALLEL_MERGE_THRESHOLD) {
+                mergeInto(src, lo1, hi1, lo2, hi2, dst, out);
+                return;
+            }
+
+            int m1, m2;
+            if (n1 >= n2) {
+                // Left elements equal to the pivot stay ahead of right ones (stability)
+                m1 = (lo1 + hi1) >>> 1;
+                m2 = lowerBound(src, lo2, hi2, src[m1]);
+            } else {
+                m2 = (lo2 + hi2) >>> 1;
+                m1 = upperBound(src, lo1, hi1, src[m2]);
+            }
+
+            int split = out + (m1 - lo1) + (m2 - lo2);
+            invokeAll(new MergeTask(src, lo1, m1, lo2, m2, dst, out),
+                      new MergeTask(src, m1, hi1, m2, hi2, dst, split));
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // Run-adaptive (TimSort-style) Merge Sort
+    // --------------------------------------------------------------------------------
+
+    // Arrays shorter than this are binary insertion sorted without merging
+    static final int MIN_MERGE = 32;
+
+    // Consecutive wins by one run before switching to galloping mode
+    static final int MIN_GALLOP = 7;
+
+    /**
+     * Sorts the whole array by detecting and merging natural runs.
+     *
+     * @param arr the array to sort
+     */
+    public static void timSort(int[] arr) {
+        timSort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) by detecting and merging natural runs.
+     *
+     * @param arr the array to sort
+     * @param low the starting index
+     * @param high the ending index
+     */
+    public static void timSort(int[] arr, int low, int high) {
+        int hi = high + 1;
+        int remaining = hi - low;
+        if (remaining < 2) return;
+
+        // Small arrays: one run plus binary insertion sort, no merging
+        if (remaining < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(arr, low, hi);
+            binaryInsertionSort(arr, low, hi, low + initRunLen);
+            return;
+        }
+
+        RunMerger merger = new RunMerger(arr, remaining);
+        int minRun = minRunLength(remaining);
+        do {
+            // Step 1: Find the next natural run
+            int runLen = countRunAndMakeAscending(arr, low, hi);
+
+            // Step 2: Extend short runs to minRun with binary insertion sort
+            if (runLen < minRun) {
+                int force = Math.min(remaining, minRun);
+                binaryInsertionSort(arr, low, low + force, low + runLen);
+                runLen = force;
+            }
+
+            // Step 3: Push the run and merge while the stack invariants are violated
+            merger.pushRun(low, runLen);
+            merger.mergeCollapse();
+
+            low += runLen;
+            remaining -= runLen;
+        } while (remaining != 0);
+
+        merger.mergeForceCollapse();
+    }
+
+    /**
+     * Returns the length of the run starting at lo, reversing it first if it is
+     * strictly descending (strictness keeps the sort stable).
+     */
+    static int countRunAndMakeAscending(int[] arr, int lo, int hi) {
+        int runHi = lo + 1;
+        if (runHi == hi) return 1;
+
+        if (arr[runHi++] < arr[lo]) {
+            while (runHi < hi && arr[runHi] < arr[runHi - 1]) runHi++;
+            for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                int tmp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = tmp;
+            }
+        } else {
+            while (runHi < hi && arr[runHi] >= arr[runHi - 1]) runHi++;
+        }
+        return runHi - lo;
+    }
+
+    /**
+     * Sorts arr[lo..hi) given that arr[lo..start) is already sorted, locating each
+     * insertion point by binary search (after equal elements, for stability).
+     */
+    static void binaryInsertionSort(int[] arr, int lo, int hi, int start) {
+        if (start == lo) start++;
+        for (; start < hi; start++) {
+            int pivot = arr[start];
+            int left = lo, right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (pivot < arr[mid]) right = mid;
+                else left = mid + 1;
+            }
+            System.arraycopy(arr, left, arr, left + 1, start - left);
+            arr[left] = pivot;
+        }
+    }
+
+    /**
+     * Returns the minimum run length: n itself below MIN_MERGE, otherwise a value in
+     * [MIN_MERGE/2, MIN_MERGE] such that n / minRun is a power of two or just below one.
+     */
+    static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * Run stack and merge state of one timSort call.
+     */
+    static final class RunMerger {
+        private final int[] a;
+        private int[] tmp;
+        private int minGallop = MIN_GALLOP;
+        private final int[] runBase = new int[49];  // Enough for any int-indexed array
+        private final int[] runLen = new int[49];
+        private int stackSize;
+
+        RunMerger(int[] a, int len) {
+            this.a = a;
+            // Start small; ensureCapacity grows up to half the input on demand
+            this.tmp = new int[len < 512 ? len >>> 1 : 256];
+        }
+
+        void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        /**
+         * Merges until, for the top runs X, Y, Z (Z newest), len(X) > len(Y) + len(Z)
+         * and len(Y) > len(Z) hold, also checking one entry deeper. This keeps run
+         * lengths growing at least like Fibonacci numbers, so the stack stays short.
+         */
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) n--;
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges stack runs i and i + 1, first trimming the prefix of run i and the
+         * suffix of run i + 1 that are already in their final place.
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i], len1 = runLen[i];
+            int base2 = runBase[i + 1], len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            int k = gallopRight(a[base2], a, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+            if (len2 == 0) return;
+
+            // Copy the shorter run out, so tmp is at most half the input
+            if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+            else mergeHi(base1, len1, base2, len2);
+        }
+
+        /**
+         * Merges left to right with run 1 copied to tmp (len1 <= len2).
+         */
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            int[] a = this.a;
+            int[] tmp = ensureCapacity(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+
+            int cursor1 = 0, cursor2 = base2, dest = base1;
+            a[dest++] = a[cursor2++];
+            if (--len2 == 0) {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0, count2 = 0;
+
+                // One element at a time until a run wins minGallop times in a row
+                do {
+                    if (a[cursor2] < tmp[cursor1]) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) break outer;
+                    } else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                // Galloping: find whole blocks with exponential + binary search
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) break outer;
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--len2 == 0) break outer;
+
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) break outer;
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (--len1 == 1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+
+                // Galloping stopped paying off: make it harder to re-enter
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(1, minGallop);
+
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+            } else {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+            }
+        }
+
+        /**
+         * Merges right to left with run 2 copied to tmp (len1 > len2).
+         */
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            int[] a = this.a;
+            int[] tmp = ensureCapacity(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+
+            int cursor1 = base1 + len1 - 1, cursor2 = len2 - 1, dest = base2 + len2 - 1;
+            a[dest--] = a[cursor1--];
+            if (--len1 == 0) {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0, count2 = 0;
+
+                do {
+                    if (tmp[cursor2] < a[cursor1]) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) break outer;
+                    } else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (len1 == 0) break outer;
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (--len2 == 1) break outer;
+
+                    count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (len2 <= 1) break outer;
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--len1 == 0) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(1, minGallop);
+
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+            } else {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+
+        private int[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                // Next power of two, capped at half the array
+                int newSize = Integer.highestOneBit(minCapacity) << 1;
+                if (newSize < 0) newSize = minCapacity;
+                else newSize = Math.min(newSize, a.length >>> 1);
+                tmp = new int[Math.max(newSize, minCapacity)];
+            }
+            return tmp;
+        }
+    }
+
+    /**
+     * Returns k such that arr[base + k - 1] < key <= arr[base + k] within arr[base..base+len),
+     * searching outward from base + hint in steps of 1, 3, 7, 15, ... then by bisection.
+     */
+    static int gallopLeft(int key, int[] arr, int base, int len, int hint) {
+        int lastOfs = 0, ofs = 1;
+        if (key > arr[base + hint]) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && key > arr[base + hint + ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;  // int overflow
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && key <= arr[base + hint - ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int tmp = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - tmp;
+        }
+
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (key > arr[base + m]) lastOfs = m + 1;
+            else ofs = m;
+        }
+        return ofs;
+    }
+
+    /**
+     * Like gallopLeft, but returns the position after any elements equal to key.
+     */
+    static int gallopRight(int key, int[] arr, int base, int len, int hint) {
+        int lastOfs = 0, ofs = 1;
+        if (key < arr[base + hint]) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && key < arr[base + hint - ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int tmp = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - tmp;
+        } else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && key >= arr[base + hint + ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (key < arr[base + m]) ofs = m;
+            else lastOfs = m + 1;
+        }
+        return ofs;
+    }
+
     /**
      * Utility method to print an array.
      *
@@ -95,5 +1029,26 @@ public class MergeSort {
 
         System.out.println("Sorted array using Merge Sort:");
         printArray(arr);
+
+        int[] big = new java.util.Random(42).ints(1_000_000).toArray();
+        parallelMergeSort(big);
+        System.out.println("Parallel Merge Sort on 1,000,000 ints sorted: " + isSorted(big));
+
+        int[] runs = {1, 4, 9, 16, 25, 30, 20, 10, 0, 2, 3, 5, 7, 11, 13};
+        timSort(runs);
+        System.out.println("Sorted array using run-adaptive Merge Sort:");
+        printArray(runs);
+    }
+
+    /**
+     * Returns true if the array is in non-decreasing order.
+     *
+     * @param arr the array to check
+     */
+    public static boolean isSorted(int[] arr) {
+        for (int i = 1; i < arr.length; i++) {
+            if (arr[i - 1] > arr[i]) return false;
+        }
+        return true;
     }
 }
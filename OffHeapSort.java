@@ -0,0 +1,489 @@
+/**
+ * OffHeapSort.java
+ *
+ * Sorts fixed-width records that live outside the Java heap (direct or memory-mapped
+ * ByteBuffers) in place, without copying them into an int[] first.
+ *
+ * A Layout describes the records: stride (bytes per record), the offset and width
+ * (4 or 8 bytes) of the key inside a record, its byte order, and whether it is
+ * signed. Bare ints or longs are records whose key is the whole record.
+ *
+ * 1. radixSort: LSD radix sort, one pass per key byte, moving whole records
+ *    between the data and an off-heap scratch buffer. Passes whose byte is the
+ *    same in every key are skipped. Stable
+ * 2. quickSort: in-place Introsort that swaps records, no scratch at all
+ * 3. mergeSort: bottom-up merge sort between the data and an off-heap scratch
+ *    buffer. Stable
+ *
+ * Scratch buffers are direct, so the heap never holds the data. Callers sorting
+ * repeatedly can pass their own scratch buffer and reuse it. The data is the
+ * buffer's remaining bytes, so one buffer covers at most 2 GB; larger mapped
+ * files are sorted window by window and merged (see ExternalSort).
+ *
+ * Time Complexity: radix O(w * n) for w key bytes; quick and merge O(n log n)
+ * Space Complexity: radix and merge O(n) off-heap; quick O(log n) stack
+ *
+ * Sample usage:
+ *   OffHeapSort.Layout rows = new OffHeapSort.Layout().stride(64).key(8, Long.BYTES).order(ByteOrder.BIG_ENDIAN);
+ *   OffHeapSort.radixSort(mappedBuffer, rows);
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+public class OffHeapSort {
+
+    // Ranges up to this many records are finished with insertion sort
+    static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * Shape of the records to sort. Setters return this so calls can be chained.
+     * Defaults to bare signed ints in native byte order.
+     */
+    public static class Layout {
+        int stride = Integer.BYTES;
+        int keyOffset = 0;
+        int keyBytes = Integer.BYTES;
+        ByteOrder order = ByteOrder.nativeOrder();
+        boolean signed = true;
+
+        /** Bare ints, the key being the whole record. */
+        public static Layout ints(ByteOrder order) {
+            return new Layout().order(order);
+        }
+
+        /** Bare longs, the key being the whole record. */
+        public static Layout longs(ByteOrder order) {
+            return new Layout().stride(Long.BYTES).key(0, Long.BYTES).order(order);
+        }
+
+        /** Bytes per record. */
+        public Layout stride(int bytes) {
+            if (bytes < 1) throw new IllegalArgumentException("Stride must be positive: " + bytes);
+            this.stride = bytes;
+            return this;
+        }
+
+        /** Position of the key inside a record; width is Integer.BYTES or Long.BYTES. */
+        public Layout key(int offset, int bytes) {
+            if (offset < 0) throw new IllegalArgumentException("Key offset must not be negative: " + offset);
+            if (bytes != Integer.BYTES && bytes != Long.BYTES) {
+                throw new IllegalArgumentException("Key width must be 4 or 8 bytes: " + bytes);
+            }
+            this.keyOffset = offset;
+            this.keyBytes = bytes;
+            return this;
+        }
+
+        /** Byte order the key is stored in. */
+        public Layout order(ByteOrder order) {
+            this.order = order;
+            return this;
+        }
+
+        /** Whether keys compare as two's complement (default) or as unsigned. */
+        public Layout signed(boolean signed) {
+            this.signed = signed;
+            return this;
+        }
+
+        /**
+         * Checks that the layout fits and data holds whole records.
+         *
+         * @return the number of records in data
+         */
+        int records(ByteBuffer data) {
+            if (keyOffset + keyBytes > stride) {
+                throw new IllegalArgumentException("Key [" + keyOffset + ", " + (keyOffset + keyBytes)
+                        + ") does not fit in a " + stride + "-byte record");
+            }
+            if (data.remaining() % stride != 0) {
+                throw new IllegalArgumentException(data.remaining() + " bytes is not a whole number of "
+                        + stride + "-byte records");
+            }
+            return data.remaining() / stride;
+        }
+
+        /**
+         * Returns the key of record i, mapped so that unsigned comparison of the
+         * results gives the key order.
+         */
+        long key(ByteBuffer buf, int i) {
+            int at = i * stride + keyOffset;
+            if (keyBytes == Long.BYTES) {
+                long k = buf.getLong(at);
+                return signed ? k ^ Long.MIN_VALUE : k;
+            }
+            int k = buf.getInt(at);
+            return (signed ? k ^ Integer.MIN_VALUE : k) & 0xFFFFFFFFL;
+        }
+
+        /**
+         * Copies record i of src to slot j of dst.
+         */
+        void move(ByteBuffer src, int i, ByteBuffer dst, int j) {
+            if (stride == Integer.BYTES) {
+                dst.putInt(j * Integer.BYTES, src.getInt(i * Integer.BYTES));
+            } else if (stride == Long.BYTES) {
+                dst.putLong(j * Long.BYTES, src.getLong(i * Long.BYTES));
+            } else {
+                dst.put(j * stride, src, i * stride, stride);
+            }
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // LSD Radix Sort
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts the records in data's remaining bytes by key, stably, using a
+     * scratch buffer of the same size allocated off-heap.
+     *
+     * @param data the records; position and limit are left unchanged
+     * @param layout the record shape
+     */
+    public static void radixSort(ByteBuffer data, Layout layout) {
+        radixSort(data, layout, null);
+    }
+
+    /**
+     * Same as radixSort(data, layout), with a caller-supplied scratch buffer.
+     *
+     * @param scratch at least data.remaining() bytes from its position, or null to allocate one
+     */
+    public static void radixSort(ByteBuffer data, Layout layout, ByteBuffer scratch) {
+        ByteBuffer src = data.slice().order(layout.order);
+        int n = layout.records(src);
+        if (n < 2) return;
+        ByteBuffer dst = scratch(scratch, src.capacity(), layout.order);
+
+        // Step 1: Histogram every key byte in one read of the data
+        int[][] counts = new int[layout.keyBytes][256];
+        for (int i = 0; i < n; i++) {
+            long key = layout.key(src, i);
+            for (int b = 0; b < layout.keyBytes; b++) {
+                counts[b][(int) (key >>> (8 * b)) & 0xFF]++;
+            }
+        }
+
+        // Step 2: One stable scatter per byte, least significant first
+        boolean inScratch = false;
+        for (int b = 0; b < layout.keyBytes; b++) {
+            int[] offsets = counts[b];
+            if (isUniform(offsets, n)) continue;
+            toOffsets(offsets);
+            int shift = 8 * b;
+            for (int i = 0; i < n; i++) {
+                int digit = (int) (layout.key(src, i) >>> shift) & 0xFF;
+                layout.move(src, i, dst, offsets[digit]++);
+            }
+            ByteBuffer t = src; src = dst; dst = t;
+            inScratch = !inScratch;
+        }
+
+        // Step 3: An odd number of passes leaves the result in the scratch buffer
+        if (inScratch) dst.put(0, src, 0, src.capacity());
+    }
+
+    /**
+     * Sorts the remaining ints of buf as signed values. buf may be a view of a
+     * direct or mapped buffer; the scratch buffer is allocated off-heap.
+     *
+     * @param buf the values; position and limit are left unchanged
+     */
+    public static void radixSort(IntBuffer buf) {
+        IntBuffer src = buf.slice();
+        int n = src.remaining();
+        if (n < 2) return;
+        IntBuffer dst = ByteBuffer.allocateDirect(n * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+
+        int[][] counts = new int[Integer.BYTES][256];
+        for (int i = 0; i < n; i++) {
+            int key = src.get(i) ^ Integer.MIN_VALUE;
+            for (int b = 0; b < Integer.BYTES; b++) counts[b][(key >>> (8 * b)) & 0xFF]++;
+        }
+
+        boolean inScratch = false;
+        for (int b = 0; b < Integer.BYTES; b++) {
+            int[] offsets = counts[b];
+            if (isUniform(offsets, n)) continue;
+            toOffsets(offsets);
+            int shift = 8 * b;
+            for (int i = 0; i < n; i++) {
+                int value = src.get(i);
+                dst.put(offsets[((value ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++, value);
+            }
+            IntBuffer t = src; src = dst; dst = t;
+            inScratch = !inScratch;
+        }
+        if (inScratch) dst.put(0, src, 0, n);
+    }
+
+    /**
+     * Sorts the remaining longs of buf as signed values, like radixSort(IntBuffer).
+     *
+     * @param buf the values; position and limit are left unchanged
+     */
+    public static void radixSort(LongBuffer buf) {
+        LongBuffer src = buf.slice();
+        int n = src.remaining();
+        if (n < 2) return;
+        LongBuffer dst = ByteBuffer.allocateDirect(n * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+
+        int[][] counts = new int[Long.BYTES][256];
+        for (int i = 0; i < n; i++) {
+            long key = src.get(i) ^ Long.MIN_VALUE;
+            for (int b = 0; b < Long.BYTES; b++) counts[b][(int) (key >>> (8 * b)) & 0xFF]++;
+        }
+
+        boolean inScratch = false;
+        for (int b = 0; b < Long.BYTES; b++) {
+            int[] offsets = counts[b];
+            if (isUniform(offsets, n)) continue;
+            toOffsets(offsets);
+            int shift = 8 * b;
+            for (int i = 0; i < n; i++) {
+                long value = src.get(i);
+                dst.put(offsets[(int) ((value ^ Long.MIN_VALUE) >>> shift) & 0xFF]++, value);
+            }
+            LongBuffer t = src; src = dst; dst = t;
+            inScratch = !inScratch;
+        }
+        if (inScratch) dst.put(0, src, 0, n);
+    }
+
+    /**
+     * True if every element falls in the same bucket, so the pass would not move anything.
+     */
+    static boolean isUniform(int[] counts, int n) {
+        for (int c : counts) {
+            if (c != 0) return c == n;
+        }
+        return true;
+    }
+
+    /**
+     * Turns bucket counts into starting offsets, in place.
+     */
+    static void toOffsets(int[] counts) {
+        int sum = 0;
+        for (int d = 0; d < counts.length; d++) {
+            int c = counts[d];
+            counts[d] = sum;
+            sum += c;
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // Introsort (in place)
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts the records in data's remaining bytes by key, in place. Not stable.
+     *
+     * @param data the records; position and limit are left unchanged
+     * @param layout the record shape
+     */
+    public static void quickSort(ByteBuffer data, Layout layout) {
+        ByteBuffer buf = data.slice().order(layout.order);
+        int n = layout.records(buf);
+        if (n < 2) return;
+        ByteBuffer tmp = ByteBuffer.allocateDirect(layout.stride).order(layout.order);
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(n));
+        introSort(buf, layout, tmp, 0, n - 1, depthLimit);
+    }
+
+    static void introSort(ByteBuffer buf, Layout layout, ByteBuffer tmp, int low, int high, int depthLimit) {
+        while (high - low >= INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(buf, layout, tmp, low, high);
+                return;
+            }
+
+            // Median of three as pivot value; Hoare partition on keys
+            int mid = (low + high) >>> 1;
+            long pivot = median(layout.key(buf, low), layout.key(buf, mid), layout.key(buf, high));
+            int i = low, j = high;
+            while (i <= j) {
+                while (Long.compareUnsigned(layout.key(buf, i), pivot) < 0) i++;
+                while (Long.compareUnsigned(layout.key(buf, j), pivot) > 0) j--;
+                if (i <= j) swap(buf, layout, tmp, i++, j--);
+            }
+
+            // Recurse into the smaller side, loop on the larger
+            if (j - low < high - i) {
+                introSort(buf, layout, tmp, low, j, depthLimit);
+                low = i;
+            } else {
+                introSort(buf, layout, tmp, i, high, depthLimit);
+                high = j;
+            }
+        }
+        insertionSort(buf, layout, tmp, low, high);
+    }
+
+    private static long median(long a, long b, long c) {
+        if (Long.compareUnsigned(a, b) > 0) { long t = a; a = b; b = t; }
+        if (Long.compareUnsigned(b, c) > 0) b = c;
+        return Long.compareUnsigned(a, b) > 0 ? a : b;
+    }
+
+    /**
+     * Stable insertion sort of records low..high (inclusive): the record being
+     * inserted is held in tmp while larger ones shift up one slot.
+     */
+    static void insertionSort(ByteBuffer buf, Layout layout, ByteBuffer tmp, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long key = layout.key(buf, i);
+            if (Long.compareUnsigned(layout.key(buf, i - 1), key) <= 0) continue;
+            layout.move(buf, i, tmp, 0);
+            int j = i - 1;
+            while (j >= low && Long.compareUnsigned(layout.key(buf, j), key) > 0) {
+                layout.move(buf, j, buf, j + 1);
+                j--;
+            }
+            layout.move(tmp, 0, buf, j + 1);
+        }
+    }
+
+    static void heapSort(ByteBuffer buf, Layout layout, ByteBuffer tmp, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(buf, layout, tmp, low, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(buf, layout, tmp, low, low + end);
+            siftDown(buf, layout, tmp, low, 0, end);
+        }
+    }
+
+    private static void siftDown(ByteBuffer buf, Layout layout, ByteBuffer tmp, int base, int i, int n) {
+        while (2 * i + 1 < n) {
+            int child = 2 * i + 1;
+            if (child + 1 < n && Long.compareUnsigned(layout.key(buf, base + child + 1), layout.key(buf, base + child)) > 0) {
+                child++;
+            }
+            if (Long.compareUnsigned(layout.key(buf, base + i), layout.key(buf, base + child)) >= 0) return;
+            swap(buf, layout, tmp, base + i, base + child);
+            i = child;
+        }
+    }
+
+    private static void swap(ByteBuffer buf, Layout layout, ByteBuffer tmp, int i, int j) {
+        layout.move(buf, i, tmp, 0);
+        layout.move(buf, j, buf, i);
+        layout.move(tmp, 0, buf, j);
+    }
+
+    // --------------------------------------------------------------------------------
+    // Bottom-up Merge Sort
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts the records in data's remaining bytes by key, stably, using a
+     * scratch buffer of the same size allocated off-heap.
+     *
+     * @param data the records; position and limit are left unchanged
+     * @param layout the record shape
+     */
+    public static void mergeSort(ByteBuffer data, Layout layout) {
+        mergeSort(data, layout, null);
+    }
+
+    /**
+     * Same as mergeSort(data, layout), with a caller-supplied scratch buffer.
+     *
+     * @param scratch at least data.remaining() bytes from its position, or null to allocate one
+     */
+    public static void mergeSort(ByteBuffer data, Layout layout, ByteBuffer scratch) {
+        ByteBuffer src = data.slice().order(layout.order);
+        int n = layout.records(src);
+        if (n < 2) return;
+        ByteBuffer dst = scratch(scratch, src.capacity(), layout.order);
+
+        // Step 1: Insertion sort runs of INSERTION_THRESHOLD records in place
+        ByteBuffer tmp = ByteBuffer.allocateDirect(layout.stride).order(layout.order);
+        for (int low = 0; low < n; low += INSERTION_THRESHOLD) {
+            insertionSort(src, layout, tmp, low, Math.min(low + INSERTION_THRESHOLD, n) - 1);
+        }
+
+        // Step 2: Merge pairs of runs, alternating between data and scratch
+        boolean inScratch = false;
+        for (int width = INSERTION_THRESHOLD; width < n; width <<= 1) {
+            for (int low = 0; low < n; low += 2 * width) {
+                int mid = Math.min(low + width, n), high = Math.min(low + 2 * width, n);
+                merge(src, dst, layout, low, mid, high);
+            }
+            ByteBuffer t = src; src = dst; dst = t;
+            inScratch = !inScratch;
+        }
+
+        if (inScratch) dst.put(0, src, 0, src.capacity());
+    }
+
+    /**
+     * Merges src records [low, mid) and [mid, high) into the same slots of dst;
+     * on equal keys the left run goes first.
+     */
+    static void merge(ByteBuffer src, ByteBuffer dst, Layout layout, int low, int mid, int high) {
+        int i = low, j = mid, k = low;
+        if (i < mid && j < high) {
+            long left = layout.key(src, i), right = layout.key(src, j);
+            while (true) {
+                if (Long.compareUnsigned(left, right) <= 0) {
+                    layout.move(src, i++, dst, k++);
+                    if (i == mid) break;
+                    left = layout.key(src, i);
+                } else {
+                    layout.move(src, j++, dst, k++);
+                    if (j == high) break;
+                    right = layout.key(src, j);
+                }
+            }
+        }
+        int stride = layout.stride;
+        if (i < mid) dst.put(k * stride, src, i * stride, (mid - i) * stride);
+        else if (j < high) dst.put(k * stride, src, j * stride, (high - j) * stride);
+    }
+
+    /**
+     * Returns a zero-based view of at least bytes bytes of scratch in the given
+     * order, or a new direct buffer when scratch is null.
+     */
+    static ByteBuffer scratch(ByteBuffer scratch, int bytes, ByteOrder order) {
+        if (scratch == null) return ByteBuffer.allocateDirect(bytes).order(order);
+        if (scratch.remaining() < bytes) {
+            throw new IllegalArgumentException("Scratch buffer has " + scratch.remaining()
+                    + " bytes, " + bytes + " needed");
+        }
+        return scratch.slice().limit(bytes).slice().order(order);
+    }
+
+    // Sample usage
+    public static void main(String[] args) {
+        // 16-byte rows: an 8-byte id followed by a big-endian int key and 4 bytes of payload
+        int n = 8;
+        Layout rows = new Layout().stride(16).key(8, Integer.BYTES).order(ByteOrder.BIG_ENDIAN);
+        ByteBuffer data = ByteBuffer.allocateDirect(n * 16).order(ByteOrder.BIG_ENDIAN);
+        int[] keys = {38, 27, 43, 3, 9, 82, 10, -5};
+        for (int i = 0; i < n; i++) {
+            data.putLong(i * 16, i).putInt(i * 16 + 8, keys[i]).putInt(i * 16 + 12, keys[i] * 100);
+        }
+
+        radixSort(data, rows);
+
+        System.out.println("Rows by key (id key payload):");
+        for (int i = 0; i < n; i++) {
+            System.out.println(data.getLong(i * 16) + " " + data.getInt(i * 16 + 8) + " " + data.getInt(i * 16 + 12));
+        }
+
+        // Bare longs through a LongBuffer view of a direct buffer
+        LongBuffer longs = ByteBuffer.allocateDirect(5 * Long.BYTES).asLongBuffer().put(new long[]{5, -1, 3, 9, 0});
+        longs.flip();
+        radixSort(longs);
+        System.out.print("Longs:");
+        for (int i = 0; i < longs.limit(); i++) System.out.print(" " + longs.get(i));
+        System.out.println();
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * PartialSort.java
+ *
+ * Selection algorithms for when only part of the order is needed:
+ * 1. nthElement  - k-th smallest value via introselect (QuickSort partitions)
+ * 2. partialSort - the k smallest values in order, via a bounded max-heap (HeapSort.heapify)
+ * 3. TopK        - the k largest values of an unbounded stream, in O(k) memory
+ *
+ * Time Complexity:
+ * - nthElement: O(n) expected, O(n log n) worst case [heap sort fallback past a depth limit]
+ * - partialSort / TopK: O(n log k)
+ *
+ * Space Complexity: O(1) extra for nthElement and partialSort (in-place), O(k) for TopK
+ * Stable: No
+ */
+
+public class PartialSort {
+
+    /**
+     * Rearranges arr so that arr[k] holds the value it would have if the array were
+     * sorted, every element before it is <= arr[k] and every element after it is >= arr[k].
+     *
+     * @param arr the array to rearrange
+     * @param k zero-based rank of the wanted element
+     * @return the k-th smallest value
+     */
+    public static int nthElement(int[] arr, int k) {
+        if (k < 0 || k >= arr.length) {
+            throw new IllegalArgumentException("Rank " + k + " out of range for length " + arr.length);
+        }
+
+        int low = 0, high = arr.length - 1;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(arr.length));
+
+        while (low < high) {
+            // Too many unlucky pivots (e.g. many duplicates): finish the range with heap sort
+            if (depthLimit-- == 0) {
+                HeapSort.heapSort(arr, low, high);
+                break;
+            }
+
+            // Only the side holding rank k is kept
+            int p = QuickSort.partitionRandom(arr, low, high);
+            if (k == p) break;
+            if (k < p) high = p - 1;
+            else low = p + 1;
+        }
+        return arr[k];
+    }
+
+    /**
+     * Returns the median (the lower median for even lengths), rearranging arr.
+     *
+     * @param arr the array to rearrange
+     */
+    public static int median(int[] arr) {
+        return nthElement(arr, (arr.length - 1) / 2);
+    }
+
+    /**
+     * Puts the k smallest values of arr, in ascending order, into arr[0..k).
+     * The order of the remaining elements is unspecified.
+     *
+     * @param arr the array to rearrange
+     * @param k how many of the smallest values to sort
+     */
+    public static void partialSort(int[] arr, int k) {
+        int n = arr.length;
+        if (k < 0 || k > n) {
+            throw new IllegalArgumentException("k " + k + " out of range for length " + n);
+        }
+        if (k == 0) return;
+
+        // Step 1: Max-heap of the first k elements; its root is the largest kept value
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            HeapSort.heapify(arr, k, i);
+        }
+
+        // Step 2: Every smaller element replaces the root and is sifted into place
+        for (int i = k; i < n; i++) {
+            if (arr[i] < arr[0]) {
+                HeapSort.swap(arr, 0, i);
+                HeapSort.heapify(arr, k, 0);
+            }
+        }
+
+        // Step 3: Sort the heap in place, as in heap sort
+        for (int i = k - 1; i > 0; i--) {
+            HeapSort.swap(arr, 0, i);
+            HeapSort.heapify(arr, i, 0);
+        }
+    }
+
+    /**
+     * Keeps the k largest values seen so far out of an input of any length.
+     *
+     * Values are stored bitwise-complemented (~v reverses the int order without
+     * overflow), so HeapSort.heapify's max-heap acts as a min-heap whose root is the
+     * smallest value kept; anything not larger than it is rejected in O(1).
+     */
+    public static class TopK {
+        private final int[] heap;
+        private int size;
+
+        /**
+         * @param k number of largest values to keep
+         */
+        public TopK(int k) {
+            if (k <= 0) {
+                throw new IllegalArgumentException("k must be positive: " + k);
+            }
+            heap = new int[k];
+        }
+
+        /**
+         * Offers one value to the collector.
+         *
+         * @param value the value to consider
+         */
+        public void offer(int value) {
+            int key = ~value;
+            if (size < heap.length) {
+                heap[size++] = key;
+                if (size == heap.length) {
+                    for (int i = size / 2 - 1; i >= 0; i--) {
+                        HeapSort.heapify(heap, size, i);
+                    }
+                }
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                HeapSort.heapify(heap, size, 0);
+            }
+        }
+
+        /**
+         * Offers arr[from..to) to the collector.
+         *
+         * @param arr the source array
+         * @param from first index (inclusive)
+         * @param to last index (exclusive)
+         */
+        public void offer(int[] arr, int from, int to) {
+            for (int i = from; i < to; i++) offer(arr[i]);
+        }
+
+        /**
+         * @return how many values are currently kept (at most k)
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the kept values, largest first. The collector is left unchanged.
+         */
+        public int[] toSortedArray() {
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) result[i] = ~heap[i];
+            QuickSort.quickSortIntro(result, 0, size - 1);
+            for (int i = 0, j = size - 1; i < j; i++, j--) HeapSort.swap(result, i, j);
+            return result;
+        }
+    }
+
+    /**
+     * Returns the k largest values of arr, largest first, without modifying arr.
+     *
+     * @param arr the input array
+     * @param k how many values to return
+     */
+    public static int[] topK(int[] arr, int k) {
+        TopK top = new TopK(k);
+        top.offer(arr, 0, arr.length);
+        return top.toSortedArray();
+    }
+
+    /**
+     * Utility method to print an array.
+     *
+     * @param arr the array to print
+     */
+    public static void printArray(int[] arr) {
+        for (int val : arr) {
+            System.out.print(val + " ");
+        }
+        System.out.println();
+    }
+
+    // Sample usage
+    public static void main(String[] args) {
+        int[] arr = {38, 27, 43, 3, 9, 82, 10, 55};
+
+        System.out.println("Original array:");
+        printArray(arr);
+
+        System.out.println("Median: " + median(arr.clone()));
+
+        int[] partial = arr.clone();
+        partialSort(partial, 3);
+        System.out.println("Array with its 3 smallest values sorted in front:");
+        printArray(partial);
+
+        System.out.println("Top 3 values:");
+        printArray(topK(arr, 3));
+    }
+}
@@ -1,5 +1,6 @@
-import java.util.Random;
-// The Random class provides methods to generate pseudo-random numbers of different types
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+// ThreadLocalRandom provides a per-thread pseudo-random generator (no allocation per call)
 /**
  * QuickSort.java
  *
@@ -8,10 +9,15 @@ import java.util.Random;
  * 2. First Element as Pivot
  * 3. Random Element as Pivot
  * 4. Middle Element as Pivot
+ * 5. Introsort (production mode)
+ * 6. Introsort for long[] and double[] (doubles in Double.compare order, NaN last)
+ * 7. Introsort for objects ordered by a Comparator
+ * 8. Block partitioning (BlockQuicksort): branch-free classification into offset buffers
  *
  * Time Complexity:
  * - Best/Average Case: O(n log n)
  * - Worst Case: O(n^2) [on already sorted or reverse-sorted data without randomized pivot]
+ * - Introsort Worst Case: O(n log n) [falls back to heap sort past a depth limit]
  *
  * Space Complexity: O(log n) (in-place, recursive stack)
  * Stable: No
@@ -90,8 +96,8 @@ public class QuickSort {
     }
 
     public static int partitionRandom(int[] arr, int low, int high) {
-        Random rand = new Random();
-        int randomPivot = low + rand.nextInt(high - low + 1);
+        // Shared per-thread generator: no allocation per partition
+        int randomPivot = ThreadLocalRandom.current().nextInt(low, high + 1);
         swap(arr, randomPivot, high); // Move random pivot to end
         return partitionLast(arr, low, high); // Use last pivot logic
     }
@@ -113,6 +119,630 @@ public class QuickSort {
         return partitionLast(arr, low, high); // Reuse last-pivot logic
     }
 
+    // --------------------------------------------------------------------------------
+    // 5. Introsort: three-way partitioning, ninther pivot, depth-bounded heap sort fallback
+    // --------------------------------------------------------------------------------
+
+    // Partitions at or below this size are finished with SmallSort (int[]) or insertion sort
+    static final int INSERTION_CUTOFF = 16;
+
+    // Partitions above this size use Tukey's ninther instead of median-of-3
+    static final int NINTHER_THRESHOLD = 128;
+
+    /**
+     * Sorts arr[low..high] in O(n log n) worst case regardless of input shape.
+     * Equal keys are grouped by a Dutch-flag partition, so all-equal input is linear;
+     * recursion depth past 2*log2(n) switches the subrange to heap sort; the smaller
+     * side is recursed on and the larger is looped on, keeping the stack O(log n).
+     */
+    public static void quickSortIntro(int[] arr, int low, int high) {
+        if (low >= high) return;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+        introSort(arr, low, high, depthLimit, 0, SortListener.NONE);
+    }
+
+    /**
+     * Same as quickSortIntro(arr, low, high), reporting every partition (depth and
+     * the sizes of the "<" and ">" sides), the comparisons and swaps made by the
+     * partitions, and the time spent partitioning to listener. Insertion-sorted
+     * leaves and the heap sort fallback are not counted.
+     */
+    public static void quickSortIntro(int[] arr, int low, int high, SortListener listener) {
+        if (low >= high) return;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+        introSort(arr, low, high, depthLimit, 0, listener);
+    }
+
+    static void introSort(int[] arr, int low, int high, int depthLimit, int depth, SortListener listener) {
+        while (high - low + 1 > INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                HeapSort.heapSort(arr, low, high);
+                return;
+            }
+
+            long time = listener.clock();
+            int pivot = arr[choosePivot(arr, low, high)];
+
+            // Dutch flag: arr[low..lt-1] < pivot, arr[lt..gt] == pivot, arr[gt+1..high] > pivot
+            int lt = low, i = low, gt = high;
+            while (i <= gt) {
+                int v = arr[i];
+                if (v < pivot) {
+                    swap(arr, lt++, i++);
+                } else if (v > pivot) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // Every element was tested with <, those not below the pivot also with >
+            listener.comparisons((long) (high - low + 1) + (high - lt + 1));
+            listener.swaps((long) (lt - low) + (high - gt));
+            listener.partition(depth, lt - low, high - gt);
+            listener.lap(SortListener.Phase.PARTITION, time);
+
+            // Recurse into the smaller side, loop on the larger one
+            if (lt - low < high - gt) {
+                introSort(arr, low, lt - 1, depthLimit, depth + 1, listener);
+                low = gt + 1;
+            } else {
+                introSort(arr, gt + 1, high, depthLimit, depth + 1, listener);
+                high = lt - 1;
+            }
+            depth++;
+        }
+        SmallSort.sort(arr, low, high - low + 1);
+    }
+
+    /**
+     * Returns the index of the median-of-3 pivot, or of Tukey's ninther for large ranges.
+     */
+    static int choosePivot(int[] arr, int low, int high) {
+        int n = high - low + 1;
+        int mid = low + (n >>> 1);
+        if (n > NINTHER_THRESHOLD) {
+            int s = n >>> 3;
+            int a = medianOf3(arr, low, low + s, low + 2 * s);
+            int b = medianOf3(arr, mid - s, mid, mid + s);
+            int c = medianOf3(arr, high - 2 * s, high - s, high);
+            return medianOf3(arr, a, b, c);
+        }
+        return medianOf3(arr, low, mid, high);
+    }
+
+    /**
+     * Returns whichever of the indices a, b, c holds the median value.
+     */
+    static int medianOf3(int[] arr, int a, int b, int c) {
+        int x = arr[a], y = arr[b], z = arr[c];
+        if (x < y) {
+            if (y < z) return b;
+            return x < z ? c : a;
+        }
+        if (x < z) return a;
+        return y < z ? c : b;
+    }
+
+    /**
+     * Sorts arr[low..high] using insertion sort (used for small partitions).
+     */
+    static void insertionSort(int[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int current = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > current) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = current;
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // 6. Introsort for long[] and double[]
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts arr[low..high] of longs; same engine as quickSortIntro(int[], int, int).
+     */
+    public static void quickSortIntro(long[] arr, int low, int high) {
+        if (low >= high) return;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+        introSort(arr, low, high, depthLimit);
+    }
+
+    /**
+     * Sorts arr[low..high] of doubles in the total order of Double.compare:
+     * -Infinity < ... < -0.0 < 0.0 < ... < +Infinity < NaN.
+     * NaNs are moved to the end first, the rest is sorted with plain comparisons
+     * (where -0.0 == 0.0), and finally the zeros are rewritten with -0.0 first.
+     */
+    public static void quickSortIntro(double[] arr, int low, int high) {
+        // Step 1: Move NaNs to the end of the range
+        int end = moveNaNsToEnd(arr, low, high);
+
+        // Step 2: Sort the non-NaN part
+        if (low < end) {
+            int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(end - low + 1));
+            introSort(arr, low, end, depthLimit);
+        }
+
+        // Step 3: Order the zeros so that -0.0 comes before 0.0
+        orderZeros(arr, low, end);
+    }
+
+    /**
+     * Moves every NaN of arr[low..high] to the end of the range.
+     *
+     * @return the index of the last non-NaN element (low - 1 if there is none)
+     */
+    static int moveNaNsToEnd(double[] arr, int low, int high) {
+        int end = high;
+        for (int i = high; i >= low; i--) {
+            double v = arr[i];
+            if (v != v) {
+                arr[i] = arr[end];
+                arr[end--] = v;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * In the sorted, NaN-free range arr[low..end], rewrites the run of zeros
+     * (which compare equal) so that every -0.0 precedes every 0.0.
+     */
+    static void orderZeros(double[] arr, int low, int end) {
+        int left = low, right = end + 1;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (arr[mid] < 0.0) left = mid + 1;
+            else right = mid;
+        }
+        int negativeZeros = 0, zerosEnd = left;
+        while (zerosEnd <= end && arr[zerosEnd] == 0.0) {
+            if (Double.doubleToRawLongBits(arr[zerosEnd]) < 0) negativeZeros++;
+            zerosEnd++;
+        }
+        for (int i = left; i < zerosEnd; i++) {
+            arr[i] = i < left + negativeZeros ? -0.0 : 0.0;
+        }
+    }
+
+    static void introSort(long[] arr, int low, int high, int depthLimit) {
+        while (high - low + 1 > INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                HeapSort.heapSort(arr, low, high);
+                return;
+            }
+
+            long pivot = arr[choosePivot(arr, low, high)];
+
+            // Dutch flag: arr[low..lt-1] < pivot, arr[lt..gt] == pivot, arr[gt+1..high] > pivot
+            int lt = low, i = low, gt = high;
+            while (i <= gt) {
+                long v = arr[i];
+                if (v < pivot) {
+                    swap(arr, lt++, i++);
+                } else if (v > pivot) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // Recurse into the smaller side, loop on the larger one
+            if (lt - low < high - gt) {
+                introSort(arr, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                introSort(arr, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    static int choosePivot(long[] arr, int low, int high) {
+        int n = high - low + 1;
+        int mid = low + (n >>> 1);
+        if (n > NINTHER_THRESHOLD) {
+            int s = n >>> 3;
+            int a = medianOf3(arr, low, low + s, low + 2 * s);
+            int b = medianOf3(arr, mid - s, mid, mid + s);
+            int c = medianOf3(arr, high - 2 * s, high - s, high);
+            return medianOf3(arr, a, b, c);
+        }
+        return medianOf3(arr, low, mid, high);
+    }
+
+    static int medianOf3(long[] arr, int a, int b, int c) {
+        long x = arr[a], y = arr[b], z = arr[c];
+        if (x < y) {
+            if (y < z) return b;
+            return x < z ? c : a;
+        }
+        if (x < z) return a;
+        return y < z ? c : b;
+    }
+
+    /**
+     * Sorts arr[low..high] (both bounds inclusive) using insertion sort. Shared with
+     * MergeSort, whose runs are half-open and pass high - 1.
+     */
+    static void insertionSort(long[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long current = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > current) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = current;
+        }
+    }
+
+    static void swap(long[] arr, int i, int j) {
+        long temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    static void introSort(double[] arr, int low, int high, int depthLimit) {
+        while (high - low + 1 > INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                HeapSort.heapSort(arr, low, high);
+                return;
+            }
+
+            double pivot = arr[choosePivot(arr, low, high)];
+
+            // Dutch flag: arr[low..lt-1] < pivot, arr[lt..gt] == pivot, arr[gt+1..high] > pivot
+            int lt = low, i = low, gt = high;
+            while (i <= gt) {
+                double v = arr[i];
+                if (v < pivot) {
+                    swap(arr, lt++, i++);
+                } else if (v > pivot) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // Recurse into the smaller side, loop on the larger one
+            if (lt - low < high - gt) {
+                introSort(arr, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                introSort(arr, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    static int choosePivot(double[] arr, int low, int high) {
+        int n = high - low + 1;
+        int mid = low + (n >>> 1);
+        if (n > NINTHER_THRESHOLD) {
+            int s = n >>> 3;
+            int a = medianOf3(arr, low, low + s, low + 2 * s);
+            int b = medianOf3(arr, mid - s, mid, mid + s);
+            int c = medianOf3(arr, high - 2 * s, high - s, high);
+            return medianOf3(arr, a, b, c);
+        }
+        return medianOf3(arr, low, mid, high);
+    }
+
+    static int medianOf3(double[] arr, int a, int b, int c) {
+        double x = arr[a], y = arr[b], z = arr[c];
+        if (x < y) {
+            if (y < z) return b;
+            return x < z ? c : a;
+        }
+        if (x < z) return a;
+        return y < z ? c : b;
+    }
+
+    static void insertionSort(double[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            double current = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > current) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = current;
+        }
+    }
+
+    static void swap(double[] arr, int i, int j) {
+        double temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    // --------------------------------------------------------------------------------
+    // 7. Introsort for objects ordered by a Comparator
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts the whole array by cmp; see quickSortIntro(T[], int, int, Comparator).
+     */
+    public static <T> void quickSortIntro(T[] arr, Comparator<? super T> cmp) {
+        quickSortIntro(arr, 0, arr.length - 1, cmp);
+    }
+
+    /**
+     * Sorts arr[low..high] by cmp with the same three-way Introsort as the int engine.
+     * Every element is compared against the pivot once per level, so each comparison
+     * result is kept in a local instead of calling cmp twice. Not stable; use
+     * MergeSort.mergeSort(T[], Comparator) or a key-extracting sort when order of
+     * equal elements matters.
+     */
+    public static <T> void quickSortIntro(T[] arr, int low, int high, Comparator<? super T> cmp) {
+        if (low >= high) return;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+        introSort(arr, low, high, depthLimit, cmp);
+    }
+
+    static <T> void introSort(T[] arr, int low, int high, int depthLimit, Comparator<? super T> cmp) {
+        while (high - low + 1 > INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                HeapSort.heapSort(arr, low, high, cmp);
+                return;
+            }
+
+            T pivot = arr[choosePivot(arr, low, high, cmp)];
+
+            int lt = low, i = low, gt = high;
+            while (i <= gt) {
+                int c = cmp.compare(arr[i], pivot);
+                if (c < 0) {
+                    swap(arr, lt++, i++);
+                } else if (c > 0) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                introSort(arr, low, lt - 1, depthLimit, cmp);
+                low = gt + 1;
+            } else {
+                introSort(arr, gt + 1, high, depthLimit, cmp);
+                high = lt - 1;
+            }
+        }
+        insertionSort(arr, low, high, cmp);
+    }
+
+    static <T> int choosePivot(T[] arr, int low, int high, Comparator<? super T> cmp) {
+        int n = high - low + 1;
+        int mid = low + (n >>> 1);
+        if (n > NINTHER_THRESHOLD) {
+            int s = n >>> 3;
+            int a = medianOf3(arr, low, low + s, low + 2 * s, cmp);
+            int b = medianOf3(arr, mid - s, mid, mid + s, cmp);
+            int c = medianOf3(arr, high - 2 * s, high - s, high, cmp);
+            return medianOf3(arr, a, b, c, cmp);
+        }
+        return medianOf3(arr, low, mid, high, cmp);
+    }
+
+    static <T> int medianOf3(T[] arr, int a, int b, int c, Comparator<? super T> cmp) {
+        T x = arr[a], y = arr[b], z = arr[c];
+        if (cmp.compare(x, y) < 0) {
+            if (cmp.compare(y, z) < 0) return b;
+            return cmp.compare(x, z) < 0 ? c : a;
+        }
+        if (cmp.compare(x, z) < 0) return a;
+        return cmp.compare(y, z) < 0 ? c : b;
+    }
+
+    /**
+     * Sorts arr[low..high] (both bounds inclusive) by cmp using insertion sort. It is
+     * stable, so MergeSort shares it, passing high - 1 for its half-open runs.
+     */
+    static <T> void insertionSort(T[] arr, int low, int high, Comparator<? super T> cmp) {
+        for (int i = low + 1; i <= high; i++) {
+            T current = arr[i];
+            int j = i - 1;
+            while (j >= low && cmp.compare(arr[j], current) > 0) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = current;
+        }
+    }
+
+    static void swap(Object[] arr, int i, int j) {
+        Object temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    // --------------------------------------------------------------------------------
+    // 8. BlockQuicksort: Introsort driver with branch-free block partitioning
+    // --------------------------------------------------------------------------------
+
+    // Elements classified per block; offsets of misplaced elements are buffered
+    static final int BLOCK_SIZE = 128;
+
+    /**
+     * Sorts arr[low..high] like quickSortIntro, but partitions in blocks
+     * (Edelkamp and Weiss, "BlockQuicksort"). Each side scans BLOCK_SIZE elements and
+     * records the offsets of misplaced ones with an unconditional store plus an add
+     * of the comparison result, so the scan has no data-dependent branch to
+     * mispredict; the misplaced elements are then swapped pairwise in a batch.
+     * Runs of keys equal to an earlier pivot are split off in one linear pass,
+     * so heavy duplicates stay O(n log n).
+     */
+    public static void quickSortBlock(int[] arr, int low, int high) {
+        if (low >= high) return;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+        blockIntroSort(arr, low, high, depthLimit, true, new int[BLOCK_SIZE], new int[BLOCK_SIZE]);
+    }
+
+    static void blockIntroSort(int[] arr, int low, int high, int depthLimit, boolean leftmost,
+                               int[] offsetsL, int[] offsetsR) {
+        while (high - low + 1 > INSERTION_CUTOFF) {
+            if (depthLimit-- == 0) {
+                HeapSort.heapSort(arr, low, high);
+                return;
+            }
+
+            int pivotIndex = choosePivot(arr, low, high);
+            int pivot = arr[pivotIndex];
+
+            // arr[low - 1] was a pivot and is <= every element here; if it equals the new
+            // pivot, gather that key at the front and continue with the larger keys only
+            if (!leftmost && arr[low - 1] == pivot) {
+                int i = low;
+                for (int j = low; j <= high; j++) {
+                    if (arr[j] == pivot) swap(arr, i++, j);
+                }
+                low = i;
+                continue;
+            }
+
+            swap(arr, pivotIndex, high);
+            int mid = blockPartition(arr, low, high, offsetsL, offsetsR);
+
+            // Recurse into the smaller side, loop on the larger one
+            if (mid - low < high - mid) {
+                blockIntroSort(arr, low, mid - 1, depthLimit, leftmost, offsetsL, offsetsR);
+                low = mid + 1;
+                leftmost = false;
+            } else {
+                blockIntroSort(arr, mid + 1, high, depthLimit, false, offsetsL, offsetsR);
+                high = mid - 1;
+            }
+        }
+        SmallSort.sort(arr, low, high - low + 1);
+    }
+
+    /**
+     * Partitions arr[low..high] around the pivot stored at arr[high] and returns its
+     * final index: arr[low..p-1] < pivot <= arr[p+1..high]. The block size is the
+     * length of the offset buffers.
+     */
+    static int blockPartition(int[] arr, int low, int high, int[] offsetsL, int[] offsetsR) {
+        int block = offsetsL.length;
+        int pivot = arr[high];
+        int l = low, r = high - 1;
+        int numL = 0, numR = 0, startL = 0, startR = 0;
+
+        // Step 1: Full blocks from both ends while more than two blocks remain
+        while (r - l + 1 > 2 * block) {
+            if (numL == 0) {
+                startL = 0;
+                for (int i = 0; i < block; i++) {
+                    offsetsL[numL] = i;
+                    numL += arr[l + i] >= pivot ? 1 : 0;
+                }
+            }
+            if (numR == 0) {
+                startR = 0;
+                for (int i = 0; i < block; i++) {
+                    offsetsR[numR] = i;
+                    numR += pivot > arr[r - i] ? 1 : 0;
+                }
+            }
+
+            int num = Math.min(numL, numR);
+            for (int j = 0; j < num; j++) {
+                swap(arr, l + offsetsL[startL + j], r - offsetsR[startR + j]);
+            }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+            if (numL == 0) l += block;
+            if (numR == 0) r -= block;
+        }
+
+        // Step 2: Split what is left between the sides, keeping a half-done block as is
+        int shiftL, shiftR;
+        if (numL == 0 && numR == 0) {
+            shiftL = (r - l + 1) / 2;
+            shiftR = (r - l + 1) - shiftL;
+            startL = 0;
+            startR = 0;
+            for (int i = 0; i < shiftL; i++) {
+                offsetsL[numL] = i;
+                numL += arr[l + i] >= pivot ? 1 : 0;
+                offsetsR[numR] = i;
+                numR += pivot > arr[r - i] ? 1 : 0;
+            }
+            if (shiftL < shiftR) {
+                offsetsR[numR] = shiftR - 1;
+                numR += pivot > arr[r - shiftR + 1] ? 1 : 0;
+            }
+        } else if (numR != 0) {
+            shiftL = (r - l + 1) - block;
+            shiftR = block;
+            startL = 0;
+            for (int i = 0; i < shiftL; i++) {
+                offsetsL[numL] = i;
+                numL += arr[l + i] >= pivot ? 1 : 0;
+            }
+        } else {
+            shiftL = block;
+            shiftR = (r - l + 1) - block;
+            startR = 0;
+            for (int i = 0; i < shiftR; i++) {
+                offsetsR[numR] = i;
+                numR += pivot > arr[r - i] ? 1 : 0;
+            }
+        }
+
+        int num = Math.min(numL, numR);
+        for (int j = 0; j < num; j++) {
+            swap(arr, l + offsetsL[startL + j], r - offsetsR[startR + j]);
+        }
+        numL -= num;
+        numR -= num;
+        startL += num;
+        startR += num;
+        if (numL == 0) l += shiftL;
+        if (numR == 0) r -= shiftR;
+
+        // Step 3: One side still holds misplaced elements; move them next to the
+        // boundary and put the pivot between the sides
+        if (numL != 0) {
+            int i = startL + numL - 1;
+            int upper = r - l;
+            while (i >= startL && offsetsL[i] == upper) {
+                upper--;
+                i--;
+            }
+            while (i >= startL) {
+                swap(arr, l + upper--, l + offsetsL[i--]);
+            }
+            swap(arr, high, l + upper + 1);
+            return l + upper + 1;
+        }
+        if (numR != 0) {
+            int i = startR + numR - 1;
+            int upper = r - l;
+            while (i >= startR && offsetsR[i] == upper) {
+                upper--;
+                i--;
+            }
+            while (i >= startR) {
+                swap(arr, r - upper--, r - offsetsR[i--]);
+            }
+            swap(arr, high, r - upper);
+            return r - upper;
+        }
+        swap(arr, high, l);
+        return l;
+    }
+
     // --------------------------------------------------------------------------------
     // Utility Method to Print the Array
     // --------------------------------------------------------------------------------
@@ -155,5 +785,17 @@ public class QuickSort {
         quickSortMidPivot(arr4, 0, arr4.length - 1);
         System.out.println("\nSorted using Middle Element as Pivot:");
         printArray(arr4);
+
+        // Using Introsort
+        int[] arr5 = original.clone();
+        quickSortIntro(arr5, 0, arr5.length - 1);
+        System.out.println("\nSorted using Introsort:");
+        printArray(arr5);
+
+        // Using BlockQuicksort partitioning
+        int[] arr6 = original.clone();
+        quickSortBlock(arr6, 0, arr6.length - 1);
+        System.out.println("\nSorted using BlockQuicksort:");
+        printArray(arr6);
     }
 }
@@ -14,23 +14,78 @@
  * Space Complexity: O(n + k)
  * Stable: Yes
  *
- * Limitation: Only works for non-negative integers in this implementation.
+ * Limitation: radixSort only works for non-negative integers; use radixSortSigned
+ * for arrays that may contain negative values.
+ *
+ * Binary LSD engine (radixSortSigned / parallelRadixSortSigned):
+ * - Digits of 8, 11 or 16 bits extracted with shifts and masks instead of / and %
+ * - The sign bit is flipped so negative values order before positive ones
+ * - Two buffers are swapped between passes; passes where every element
+ *   shares the same digit are skipped
+ * - Variants for int[], long[] and long keys carrying int payloads
+ * - double[] (Double.compare order, NaN last) through order-preserving long keys;
+ *   short[], char[] and byte[] in a single counting pass (short[] and char[] count
+ *   over [min, max] only, and short sparse inputs are introsorted instead)
+ * - sortIndices: stable argsort returning a permutation without moving the data
+ * - sortByLongKey / sortByIntKey / sortByDoubleKey / sortByLongKeys: stable object sorts
+ *   that extract keys once and radix sort (key, index) pairs instead of comparing
+ * - Overloads taking a SortContext reuse its scratch buffer and histograms
+ * - msdRadixSort: in-place MSD (American flag) engine for int[], long[], byte[][]
+ *   and UTF-8 strings; O(1) extra space for fixed-width keys, and a bucket stops
+ *   being split once it is small, instead of every digit being run over all keys
+ * - int[] inputs of at most SMALL_THRESHOLD elements go to SmallSort
  */
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
 public class RadixSort {
 
+    // Default digit width for the binary engine (one byte per pass)
+    static final int DEFAULT_BITS = 8;
+
+    // Arrays smaller than this are not worth splitting across threads
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // Arrays up to this size are sorted by SmallSort, cheaper than four histogram passes
+    static final int SMALL_THRESHOLD = 64;
+
+    // short[] / char[] inputs below this size with a sparse value range are compared,
+    // not counted, since the count table can be far larger than the input
+    static final int SMALL_16_THRESHOLD = 1 << 12;
+
     /**
      * Main method to perform Radix Sort on the array.
      *
      * @param arr the array to sort
      */
     public static void radixSort(int[] arr) {
+        radixSort(arr, new SortContext());
+    }
+
+    /**
+     * Same as radixSort(arr) but the output buffer and digit counts come from ctx.
+     *
+     * @param arr the array to sort (non-negative values only)
+     * @param ctx supplies the scratch buffers
+     */
+    public static void radixSort(int[] arr, SortContext ctx) {
+        if (arr.length == 0) return;
+
         // Step 1: Find the maximum number to know number of digits
         int max = getMax(arr);
 
         // Step 2: Do counting sort for every digit place (1s, 10s, 100s...)
+        int[] output = ctx.intScratch(arr.length);  // shared by every pass
         for (int exp = 1; max / exp > 0; exp *= 10) {
-            countingSortByDigit(arr, exp);
+            countingSortByDigit(arr, exp, output, ctx.counts(10));
+            if (exp > Integer.MAX_VALUE / 10) break;  // next exp would overflow
         }
     }
 
@@ -57,9 +112,26 @@ public class RadixSort {
      * @param exp the digit place (1 for units, 10 for tens, etc.)
      */
     public static void countingSortByDigit(int[] arr, int exp) {
+        countingSortByDigit(arr, exp, new int[arr.length]);
+    }
+
+    /**
+     * Same as countingSortByDigit(arr, exp) but writes through a caller-supplied
+     * output buffer so that repeated passes do not allocate.
+     *
+     * @param arr the input array
+     * @param exp the digit place (1 for units, 10 for tens, etc.)
+     * @param output scratch buffer with at least arr.length elements
+     */
+    public static void countingSortByDigit(int[] arr, int exp, int[] output) {
+        countingSortByDigit(arr, exp, output, new int[10]);
+    }
+
+    /**
+     * Digit pass with caller-supplied output buffer and zeroed count array of 10 slots.
+     */
+    static void countingSortByDigit(int[] arr, int exp, int[] output, int[] count) {
         int n = arr.length;
-        int[] output = new int[n];      // output array
-        int[] count = new int[10];      // digit range [0–9]
 
         // Count the occurrences of each digit at current place
         for (int i = 0; i < n; i++) {
@@ -85,6 +157,1033 @@ public class RadixSort {
         }
     }
 
+    // --------------------------------------------------------------------------------
+    // Binary LSD Radix Sort (signed int)
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts an int array (negatives included) using 8-bit digits.
+     *
+     * @param arr the array to sort
+     */
+    public static void radixSortSigned(int[] arr) {
+        radixSortSigned(arr, DEFAULT_BITS);
+    }
+
+    /**
+     * Sorts an int array (negatives included) using digits of the given width.
+     * All digit histograms are built in a single read of the input.
+     *
+     * @param arr the array to sort
+     * @param bits digit width in bits, between 1 and 16 (8 and 11 are typical)
+     */
+    public static void radixSortSigned(int[] arr, int bits) {
+        radixSortSigned(arr, bits, new SortContext());
+    }
+
+    /**
+     * Sorts an int array with digits of the given width, borrowing the scratch
+     * buffer and histograms from ctx so that repeated sorts do not allocate.
+     *
+     * @param arr the array to sort
+     * @param bits digit width in bits, between 1 and 16
+     * @param ctx supplies the scratch buffers
+     */
+    public static void radixSortSigned(int[] arr, int bits, SortContext ctx) {
+        radixSortSigned(arr, bits, ctx, SortListener.NONE);
+    }
+
+    /**
+     * Same as radixSortSigned(arr, bits, ctx), reporting the histogram, prefix-sum
+     * and scatter phases, element moves and scratch growth to listener.
+     *
+     * @param arr the array to sort
+     * @param bits digit width in bits, between 1 and 16
+     * @param ctx supplies the scratch buffers
+     * @param listener receives the metrics
+     */
+    public static void radixSortSigned(int[] arr, int bits, SortContext ctx, SortListener listener) {
+        checkBits(bits);
+        int n = arr.length;
+        if (n <= SMALL_THRESHOLD) {
+            SmallSort.sort(arr, 0, n);
+            return;
+        }
+
+        int radix = 1 << bits;
+        int mask = radix - 1;
+        int passes = (Integer.SIZE + bits - 1) / bits;
+        long retained = ctx.retainedBytes();
+        long time = listener.clock();
+
+        // Step 1: Histogram every digit position at once (pass p owns counts[p * radix ..])
+        int[] counts = ctx.counts(passes * radix);
+        for (int i = 0; i < n; i++) {
+            int key = arr[i] ^ Integer.MIN_VALUE;
+            for (int p = 0; p < passes; p++) {
+                counts[p * radix + ((key >>> (p * bits)) & mask)]++;
+            }
+        }
+        time = listener.lap(SortListener.Phase.HISTOGRAM, time);
+
+        // Step 2: Scatter by each non-trivial digit, swapping buffers between passes
+        int[] src = arr;
+        int[] dst = ctx.intScratch(n);
+        for (int p = 0; p < passes; p++) {
+            int shift = p * bits;
+            int base = p * radix;
+            if (counts[base + (((src[0] ^ Integer.MIN_VALUE) >>> shift) & mask)] == n) continue;
+
+            toOffsets(counts, base, radix);
+            time = listener.lap(SortListener.Phase.PREFIX_SUM, time);
+            for (int i = 0; i < n; i++) {
+                int value = src[i];
+                dst[counts[base + (((value ^ Integer.MIN_VALUE) >>> shift) & mask)]++] = value;
+            }
+            listener.moves(n);
+
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+            time = listener.lap(SortListener.Phase.SCATTER, time);
+        }
+
+        // Step 3: An odd number of passes leaves the result in the scratch buffer
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+            listener.moves(n);
+            listener.lap(SortListener.Phase.SCATTER, time);
+        }
+        listener.allocated(ctx.retainedBytes() - retained);
+    }
+
+    // --------------------------------------------------------------------------------
+    // Binary LSD Radix Sort (signed long)
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts a long array (negatives included) using 8-bit digits.
+     *
+     * @param arr the array to sort
+     */
+    public static void radixSortSigned(long[] arr) {
+        radixSortSigned(arr, DEFAULT_BITS);
+    }
+
+    /**
+     * Sorts a long array (negatives included) using digits of the given width.
+     *
+     * @param arr the array to sort
+     * @param bits digit width in bits, between 1 and 16
+     */
+    public static void radixSortSigned(long[] arr, int bits) {
+        radixSortSigned(arr, bits, new SortContext());
+    }
+
+    /**
+     * Sorts a long array with digits of the given width, borrowing the scratch
+     * buffer and histograms from ctx.
+     *
+     * @param arr the array to sort
+     * @param bits digit width in bits, between 1 and 16
+     * @param ctx supplies the scratch buffers
+     */
+    public static void radixSortSigned(long[] arr, int bits, SortContext ctx) {
+        checkBits(bits);
+        int n = arr.length;
+        if (n < 2) return;
+
+        int radix = 1 << bits;
+        int mask = radix - 1;
+        int passes = (Long.SIZE + bits - 1) / bits;
+
+        int[] counts = ctx.counts(passes * radix);
+        for (int i = 0; i < n; i++) {
+            long key = arr[i] ^ Long.MIN_VALUE;
+            for (int p = 0; p < passes; p++) {
+                counts[p * radix + ((int) (key >>> (p * bits)) & mask)]++;
+            }
+        }
+
+        long[] src = arr;
+        long[] dst = ctx.longScratch(n);
+        for (int p = 0; p < passes; p++) {
+            int shift = p * bits;
+            int base = p * radix;
+            if (counts[base + ((int) ((src[0] ^ Long.MIN_VALUE) >>> shift) & mask)] == n) continue;
+
+            toOffsets(counts, base, radix);
+            for (int i = 0; i < n; i++) {
+                long value = src[i];
+                dst[counts[base + ((int) ((value ^ Long.MIN_VALUE) >>> shift) & mask)]++] = value;
+            }
+
+            long[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+
+        if (src != arr) System.arraycopy(src, 0, arr, 0, n);
+    }
+
+    // --------------------------------------------------------------------------------
+    // Binary LSD Radix Sort (long keys with int payloads)
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts long keys (e.g. timestamps) and moves each int payload (e.g. row id)
+     * along with its key. The sort is stable, so equal keys keep their payload order.
+     *
+     * @param keys the keys to sort
+     * @param values the payloads, values[i] belongs to keys[i]
+     */
+    public static void radixSortSigned(long[] keys, int[] values) {
+        radixSortSigned(keys, values, DEFAULT_BITS);
+    }
+
+    /**
+     * Sorts long keys with int payloads using digits of the given width.
+     *
+     * @param keys the keys to sort
+     * @param values the payloads, values[i] belongs to keys[i]
+     * @param bits digit width in bits, between 1 and 16
+     */
+    public static void radixSortSigned(long[] keys, int[] values, int bits) {
+        checkBits(bits);
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values must have the same length");
+        }
+        int n = keys.length;
+        if (n < 2) return;
+
+        int mask = (1 << bits) - 1;
+        int passes = (Long.SIZE + bits - 1) / bits;
+
+        int[][] counts = new int[passes][1 << bits];
+        for (int i = 0; i < n; i++) {
+            long key = keys[i] ^ Long.MIN_VALUE;
+            for (int p = 0; p < passes; p++) {
+                counts[p][(int) (key >>> (p * bits)) & mask]++;
+            }
+        }
+
+        long[] srcKeys = keys, dstKeys = new long[n];
+        int[] srcValues = values, dstValues = new int[n];
+        for (int p = 0; p < passes; p++) {
+            int shift = p * bits;
+            int[] count = counts[p];
+            if (count[(int) ((srcKeys[0] ^ Long.MIN_VALUE) >>> shift) & mask] == n) continue;
+
+            toOffsets(count);
+            for (int i = 0; i < n; i++) {
+                long key = srcKeys[i];
+                int pos = count[(int) ((key ^ Long.MIN_VALUE) >>> shift) & mask]++;
+                dstKeys[pos] = key;
+                dstValues[pos] = srcValues[i];
+            }
+
+            long[] tk = srcKeys; srcKeys = dstKeys; dstKeys = tk;
+            int[] tv = srcValues; srcValues = dstValues; dstValues = tv;
+        }
+
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, n);
+            System.arraycopy(srcValues, 0, values, 0, n);
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // Parallel Binary LSD Radix Sort
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts an int array (negatives included) on the common ForkJoinPool.
+     *
+     * @param arr the array to sort
+     */
+    public static void parallelRadixSortSigned(int[] arr) {
+        parallelRadixSortSigned(arr, DEFAULT_BITS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multithreaded LSD radix sort. The array is cut into one contiguous chunk per
+     * worker; for every pass each worker histograms its chunk, the per-worker counts
+     * are merged by a prefix sum into disjoint write offsets (bucket-major, then
+     * worker order, which keeps the sort stable), and each worker scatters its chunk.
+     *
+     * @param arr the array to sort
+     * @param bits digit width in bits, between 1 and 16
+     * @param pool the pool that runs the histogram and scatter steps
+     */
+    public static void parallelRadixSortSigned(int[] arr, int bits, ForkJoinPool pool) {
+        checkBits(bits);
+        int n = arr.length;
+        int workers = Math.min(pool.getParallelism(), n / (PARALLEL_THRESHOLD / 4) + 1);
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            radixSortSigned(arr, bits);
+            return;
+        }
+
+        int radix = 1 << bits;
+        int mask = radix - 1;
+        int passes = (Integer.SIZE + bits - 1) / bits;
+        int chunk = (n + workers - 1) / workers;
+
+        // Per-worker counts, reused by every pass
+        int[][] counts = new int[workers][radix];
+        int[][] buffers = {arr, new int[n]};
+        int current = 0;
+        for (int p = 0; p < passes; p++) {
+            int[] src = buffers[current];
+            int[] dst = buffers[current ^ 1];
+            int shift = p * bits;
+
+            // Step 1: Each worker histograms the digit over its own chunk
+            runChunks(pool, workers, w -> {
+                int[] local = counts[w];
+                Arrays.fill(local, 0);
+                int end = Math.min(n, (w + 1) * chunk);
+                for (int i = w * chunk; i < end; i++) {
+                    int value = src[i];
+                    local[((value ^ Integer.MIN_VALUE) >>> shift) & mask]++;
+                }
+            });
+
+            // Step 2: Prefix-sum merge of the worker histograms into write offsets
+            int sum = 0;
+            boolean trivial = false;
+            for (int r = 0; r < radix && !trivial; r++) {
+                int bucketStart = sum;
+                for (int w = 0; w < workers; w++) {
+                    int c = counts[w][r];
+                    counts[w][r] = sum;
+                    sum += c;
+                }
+                trivial = sum - bucketStart == n;
+            }
+            if (trivial) continue;
+
+            // Step 3: Parallel scatter into disjoint slices of the other buffer
+            runChunks(pool, workers, w -> {
+                int[] offsets = counts[w];
+                int end = Math.min(n, (w + 1) * chunk);
+                for (int i = w * chunk; i < end; i++) {
+                    int value = src[i];
+                    dst[offsets[((value ^ Integer.MIN_VALUE) >>> shift) & mask]++] = value;
+                }
+            });
+            current ^= 1;
+        }
+
+        if (current != 0) System.arraycopy(buffers[1], 0, arr, 0, n);
+    }
+
+    /**
+     * Sorts a long array (negatives included) on the common ForkJoinPool.
+     *
+     * @param arr the array to sort
+     */
+    public static void parallelRadixSortSigned(long[] arr) {
+        parallelRadixSortSigned(arr, DEFAULT_BITS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multithreaded LSD radix sort for long arrays; see the int[] overload.
+     *
+     * @param arr the array to sort
+     * @param bits digit width in bits, between 1 and 16
+     * @param pool the pool that runs the histogram and scatter steps
+     */
+    public static void parallelRadixSortSigned(long[] arr, int bits, ForkJoinPool pool) {
+        checkBits(bits);
+        int n = arr.length;
+        int workers = Math.min(pool.getParallelism(), n / (PARALLEL_THRESHOLD / 4) + 1);
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            radixSortSigned(arr, bits);
+            return;
+        }
+
+        int radix = 1 << bits;
+        int mask = radix - 1;
+        int passes = (Long.SIZE + bits - 1) / bits;
+        int chunk = (n + workers - 1) / workers;
+
+        // Per-worker counts, reused by every pass
+        int[][] counts = new int[workers][radix];
+        long[][] buffers = {arr, new long[n]};
+        int current = 0;
+        for (int p = 0; p < passes; p++) {
+            long[] src = buffers[current];
+            long[] dst = buffers[current ^ 1];
+            int shift = p * bits;
+
+            // Step 1: Each worker histograms the digit over its own chunk
+            runChunks(pool, workers, w -> {
+                int[] local = counts[w];
+                Arrays.fill(local, 0);
+                int end = Math.min(n, (w + 1) * chunk);
+                for (int i = w * chunk; i < end; i++) {
+                    long value = src[i];
+                    local[(int) ((value ^ Long.MIN_VALUE) >>> shift) & mask]++;
+                }
+            });
+
+            // Step 2: Prefix-sum merge of the worker histograms into write offsets
+            int sum = 0;
+            boolean trivial = false;
+            for (int r = 0; r < radix && !trivial; r++) {
+                int bucketStart = sum;
+                for (int w = 0; w < workers; w++) {
+                    int c = counts[w][r];
+                    counts[w][r] = sum;
+                    sum += c;
+                }
+                trivial = sum - bucketStart == n;
+            }
+            if (trivial) continue;
+
+            // Step 3: Parallel scatter into disjoint slices of the other buffer
+            runChunks(pool, workers, w -> {
+                int[] offsets = counts[w];
+                int end = Math.min(n, (w + 1) * chunk);
+                for (int i = w * chunk; i < end; i++) {
+                    long value = src[i];
+                    dst[offsets[(int) ((value ^ Long.MIN_VALUE) >>> shift) & mask]++] = value;
+                }
+            });
+            current ^= 1;
+        }
+
+        if (current != 0) System.arraycopy(buffers[1], 0, arr, 0, n);
+    }
+
+    // --------------------------------------------------------------------------------
+    // double[], short[], char[] and byte[]
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts a double array in the total order of Double.compare (-0.0 before 0.0,
+     * NaN last) by radix sorting order-preserving long keys.
+     *
+     * @param arr the array to sort
+     */
+    public static void radixSortSigned(double[] arr) {
+        int n = arr.length;
+        if (n < 2) return;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = sortableBits(arr[i]);
+        radixSortSigned(keys);
+        for (int i = 0; i < n; i++) arr[i] = fromSortableBits(keys[i]);
+    }
+
+    /**
+     * Maps a double to a long whose signed order matches Double.compare: negative
+     * values have their magnitude bits flipped, and NaN is canonicalized first.
+     */
+    static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Inverse of sortableBits (the mapping is its own inverse on the bit level).
+     */
+    static double fromSortableBits(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+
+    /**
+     * Sorts a short array. All 2^16 values fit one digit, so this is a single
+     * counting pass over [min, max]; see radixSortSigned(short[], SortContext).
+     *
+     * @param arr the array to sort
+     */
+    public static void radixSortSigned(short[] arr) {
+        radixSortSigned(arr, new SortContext());
+    }
+
+    /**
+     * Sorts a short array, borrowing the histogram and scratch from ctx. Inputs
+     * shorter than SMALL_16_THRESHOLD whose value range is wider than the input
+     * are widened into scratch and introsorted instead, so a short array does not
+     * pay for walking a 2^16-slot table.
+     *
+     * @param arr the array to sort
+     * @param ctx supplies the histogram and, for short inputs, the int scratch
+     */
+    public static void radixSortSigned(short[] arr, SortContext ctx) {
+        int n = arr.length;
+        if (n < 2) return;
+        int min = arr[0], max = arr[0];
+        for (int i = 1; i < n; i++) {
+            int v = arr[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+        }
+        int range = max - min + 1;
+        if (n < SMALL_16_THRESHOLD && range > n) {
+            int[] wide = ctx.intScratch(n);
+            for (int i = 0; i < n; i++) wide[i] = arr[i];
+            QuickSort.quickSortIntro(wide, 0, n - 1);
+            for (int i = 0; i < n; i++) arr[i] = (short) wide[i];
+            return;
+        }
+        int[] count = ctx.counts(range);
+        for (short v : arr) count[v - min]++;
+        int index = 0;
+        for (int k = 0; k < range; k++) {
+            for (int c = count[k]; c > 0; c--) arr[index++] = (short) (k + min);
+        }
+    }
+
+    /**
+     * Sorts a char array (unsigned 16-bit) with a single counting pass over
+     * [min, max]; see radixSortUnsigned(char[], SortContext).
+     *
+     * @param arr the array to sort
+     */
+    public static void radixSortUnsigned(char[] arr) {
+        radixSortUnsigned(arr, new SortContext());
+    }
+
+    /**
+     * Sorts a char array, borrowing the histogram and scratch from ctx. Short
+     * inputs with a wide value range are introsorted, as for short[].
+     *
+     * @param arr the array to sort
+     * @param ctx supplies the histogram and, for short inputs, the int scratch
+     */
+    public static void radixSortUnsigned(char[] arr, SortContext ctx) {
+        int n = arr.length;
+        if (n < 2) return;
+        int min = arr[0], max = arr[0];
+        for (int i = 1; i < n; i++) {
+            int v = arr[i];
+            if (v < min) min = v;
+            else if (v > max) max = v;
+        }
+        int range = max - min + 1;
+        if (n < SMALL_16_THRESHOLD && range > n) {
+            int[] wide = ctx.intScratch(n);
+            for (int i = 0; i < n; i++) wide[i] = arr[i];
+            QuickSort.quickSortIntro(wide, 0, n - 1);
+            for (int i = 0; i < n; i++) arr[i] = (char) wide[i];
+            return;
+        }
+        int[] count = ctx.counts(range);
+        for (char v : arr) count[v - min]++;
+        int index = 0;
+        for (int k = 0; k < range; k++) {
+            for (int c = count[k]; c > 0; c--) arr[index++] = (char) (k + min);
+        }
+    }
+
+    /**
+     * Sorts a byte array with a single counting pass.
+     *
+     * @param arr the array to sort
+     */
+    public static void radixSortSigned(byte[] arr) {
+        int[] count = new int[1 << 8];
+        for (byte v : arr) count[v - Byte.MIN_VALUE]++;
+        int index = 0;
+        for (int k = 0; k < count.length; k++) {
+            for (int c = count[k]; c > 0; c--) arr[index++] = (byte) (k + Byte.MIN_VALUE);
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // In-place MSD Radix Sort (American flag)
+    // --------------------------------------------------------------------------------
+
+    // Buckets per MSD pass (one byte per digit)
+    static final int MSD_RADIX = 1 << 8;
+
+    // byte[][] ranges up to this size are finished with insertion sort
+    static final int MSD_BYTES_CUTOFF = 32;
+
+    /**
+     * Sorts an int array in place, most significant byte first. Each pass counts the
+     * digits of a range and then moves every element straight into its bucket by
+     * following swap cycles (American flag sort), so no output array is needed.
+     * Only buckets holding more than one distinct key are recursed into; ranges of
+     * at most SMALL_THRESHOLD elements go to SmallSort, and a digit shared by the
+     * whole range costs one counting pass and no moves.
+     *
+     * Extra space: two 256-entry tables per byte of the key (8 KB for int).
+     *
+     * @param arr the array to sort
+     */
+    public static void msdRadixSort(int[] arr) {
+        msdRadixSort(arr, 0, arr.length);
+    }
+
+    /**
+     * Sorts arr[from..to) in place with the American flag engine.
+     *
+     * @param arr the array containing the range
+     * @param from index of the first element
+     * @param to index after the last element
+     */
+    public static void msdRadixSort(int[] arr, int from, int to) {
+        int levels = Integer.BYTES;
+        americanFlag(arr, from, to, levels - 1, new int[levels][MSD_RADIX], new int[levels][MSD_RADIX]);
+    }
+
+    static void americanFlag(int[] arr, int from, int to, int level, int[][] heads, int[][] tails) {
+        while (to - from > SMALL_THRESHOLD) {
+            int shift = level * 8;
+            int[] head = heads[level];
+            int[] tail = tails[level];
+
+            // Step 1: Histogram the digit; a digit shared by every element is skipped
+            Arrays.fill(head, 0);
+            for (int i = from; i < to; i++) {
+                head[((arr[i] ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++;
+            }
+            if (head[((arr[from] ^ Integer.MIN_VALUE) >>> shift) & 0xFF] == to - from) {
+                if (level-- == 0) return;
+                continue;
+            }
+
+            // Step 2: head[b] is the next free slot of bucket b, tail[b] its end
+            int sum = from;
+            for (int b = 0; b < MSD_RADIX; b++) {
+                int c = head[b];
+                head[b] = sum;
+                sum += c;
+                tail[b] = sum;
+            }
+
+            // Step 3: Carry each misplaced element around its cycle into its bucket
+            for (int b = 0; b < MSD_RADIX; b++) {
+                while (head[b] < tail[b]) {
+                    int value = arr[head[b]];
+                    int d = ((value ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+                    while (d != b) {
+                        int displaced = arr[head[d]];
+                        arr[head[d]++] = value;
+                        value = displaced;
+                        d = ((value ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+                    }
+                    arr[head[b]++] = value;
+                }
+            }
+
+            // Step 4: After the last byte every bucket holds a single key
+            if (level == 0) return;
+
+            // Step 5: Recurse into the buckets, looping on the largest one
+            int largest = 0, largestFrom = from, start = from;
+            for (int b = 0; b < MSD_RADIX; b++) {
+                if (tail[b] - start > tail[largest] - largestFrom) {
+                    largest = b;
+                    largestFrom = start;
+                }
+                start = tail[b];
+            }
+            start = from;
+            for (int b = 0; b < MSD_RADIX; b++) {
+                if (b != largest && tail[b] - start > 1) {
+                    americanFlag(arr, start, tail[b], level - 1, heads, tails);
+                }
+                start = tail[b];
+            }
+            from = largestFrom;
+            to = tail[largest];
+            level--;
+        }
+        SmallSort.sort(arr, from, to - from);
+    }
+
+    /**
+     * Sorts a long array in place, most significant byte first; same engine as
+     * msdRadixSort(int[]) with eight levels. Ranges of at most SMALL_THRESHOLD
+     * elements are finished with insertion sort.
+     *
+     * @param arr the array to sort
+     */
+    public static void msdRadixSort(long[] arr) {
+        int levels = Long.BYTES;
+        americanFlag(arr, 0, arr.length, levels - 1, new int[levels][MSD_RADIX], new int[levels][MSD_RADIX]);
+    }
+
+    static void americanFlag(long[] arr, int from, int to, int level, int[][] heads, int[][] tails) {
+        while (to - from > SMALL_THRESHOLD) {
+            int shift = level * 8;
+            int[] head = heads[level];
+            int[] tail = tails[level];
+
+            Arrays.fill(head, 0);
+            for (int i = from; i < to; i++) {
+                head[(int) ((arr[i] ^ Long.MIN_VALUE) >>> shift) & 0xFF]++;
+            }
+            if (head[(int) ((arr[from] ^ Long.MIN_VALUE) >>> shift) & 0xFF] == to - from) {
+                if (level-- == 0) return;
+                continue;
+            }
+
+            int sum = from;
+            for (int b = 0; b < MSD_RADIX; b++) {
+                int c = head[b];
+                head[b] = sum;
+                sum += c;
+                tail[b] = sum;
+            }
+
+            for (int b = 0; b < MSD_RADIX; b++) {
+                while (head[b] < tail[b]) {
+                    long value = arr[head[b]];
+                    int d = (int) ((value ^ Long.MIN_VALUE) >>> shift) & 0xFF;
+                    while (d != b) {
+                        long displaced = arr[head[d]];
+                        arr[head[d]++] = value;
+                        value = displaced;
+                        d = (int) ((value ^ Long.MIN_VALUE) >>> shift) & 0xFF;
+                    }
+                    arr[head[b]++] = value;
+                }
+            }
+
+            if (level == 0) return;
+
+            int largest = 0, largestFrom = from, start = from;
+            for (int b = 0; b < MSD_RADIX; b++) {
+                if (tail[b] - start > tail[largest] - largestFrom) {
+                    largest = b;
+                    largestFrom = start;
+                }
+                start = tail[b];
+            }
+            start = from;
+            for (int b = 0; b < MSD_RADIX; b++) {
+                if (b != largest && tail[b] - start > 1) {
+                    americanFlag(arr, start, tail[b], level - 1, heads, tails);
+                }
+                start = tail[b];
+            }
+            from = largestFrom;
+            to = tail[largest];
+            level--;
+        }
+        QuickSort.insertionSort(arr, from, to - 1);
+    }
+
+    /**
+     * Sorts byte strings in place in lexicographic order of their unsigned bytes,
+     * a key that is a prefix of another ordering first. Bucket 0 of each pass holds
+     * the keys that end at the current position (they are equal and done), buckets
+     * 1..256 the keys continuing with byte 0..255. A byte shared by the whole range
+     * (a common prefix) costs one counting pass and no moves.
+     *
+     * The arrays themselves are swapped, never copied; extra space is two 257-entry
+     * tables per key position reached.
+     *
+     * @param keys the byte strings to sort
+     */
+    public static void msdRadixSort(byte[][] keys) {
+        msdRadixSort(keys, null);
+    }
+
+    /**
+     * Sorts strings in the order of their UTF-8 encodings, which is Unicode code
+     * point order. This matches String.compareTo except where characters outside the
+     * Basic Multilingual Plane meet characters from U+E000 to U+FFFF. Each string is
+     * encoded once and the strings are swapped along with their keys.
+     *
+     * @param arr the strings to sort
+     */
+    public static void msdRadixSortUtf8(String[] arr) {
+        byte[][] keys = new byte[arr.length][];
+        for (int i = 0; i < arr.length; i++) keys[i] = arr[i].getBytes(StandardCharsets.UTF_8);
+        msdRadixSort(keys, arr);
+    }
+
+    /**
+     * Sorts keys and applies the same moves to values (if not null).
+     */
+    static void msdRadixSort(byte[][] keys, Object[] values) {
+        int maxLength = 0;
+        for (byte[] key : keys) maxLength = Math.max(maxLength, key.length);
+        // Tables are allocated on first use of each key position
+        americanFlag(keys, values, 0, keys.length, 0, new int[maxLength + 1][], new int[maxLength + 1][]);
+    }
+
+    static void americanFlag(byte[][] keys, Object[] values, int from, int to, int depth,
+                             int[][] heads, int[][] tails) {
+        while (to - from > MSD_BYTES_CUTOFF) {
+            if (heads[depth] == null) {
+                heads[depth] = new int[MSD_RADIX + 1];
+                tails[depth] = new int[MSD_RADIX + 1];
+            }
+            int[] head = heads[depth];
+            int[] tail = tails[depth];
+
+            Arrays.fill(head, 0);
+            for (int i = from; i < to; i++) {
+                head[byteDigit(keys[i], depth)]++;
+            }
+            int first = byteDigit(keys[from], depth);
+            if (head[first] == to - from) {
+                if (first == 0) return;
+                depth++;
+                continue;
+            }
+
+            int sum = from;
+            for (int b = 0; b <= MSD_RADIX; b++) {
+                int c = head[b];
+                head[b] = sum;
+                sum += c;
+                tail[b] = sum;
+            }
+
+            for (int b = 0; b <= MSD_RADIX; b++) {
+                while (head[b] < tail[b]) {
+                    int slot = head[b];
+                    byte[] key = keys[slot];
+                    Object value = values == null ? null : values[slot];
+                    int d = byteDigit(key, depth);
+                    while (d != b) {
+                        int target = head[d]++;
+                        byte[] displacedKey = keys[target];
+                        keys[target] = key;
+                        key = displacedKey;
+                        if (values != null) {
+                            Object displacedValue = values[target];
+                            values[target] = value;
+                            value = displacedValue;
+                        }
+                        d = byteDigit(key, depth);
+                    }
+                    keys[slot] = key;
+                    if (values != null) values[slot] = value;
+                    head[b]++;
+                }
+            }
+
+            // Bucket 0 holds keys that ended here; recurse into the others, loop on the largest
+            int largest = 1;
+            for (int b = 2; b <= MSD_RADIX; b++) {
+                if (tail[b] - tail[b - 1] > tail[largest] - tail[largest - 1]) largest = b;
+            }
+            for (int b = 1; b <= MSD_RADIX; b++) {
+                if (b != largest && tail[b] - tail[b - 1] > 1) {
+                    americanFlag(keys, values, tail[b - 1], tail[b], depth + 1, heads, tails);
+                }
+            }
+            from = tail[largest - 1];
+            to = tail[largest];
+            depth++;
+        }
+        insertionSort(keys, values, from, to, depth);
+    }
+
+    /**
+     * Bucket of key at position depth: 0 past the end of the key, else the unsigned byte + 1.
+     */
+    static int byteDigit(byte[] key, int depth) {
+        return depth < key.length ? (key[depth] & 0xFF) + 1 : 0;
+    }
+
+    /**
+     * Insertion sort of keys[from..to) that share their first depth bytes.
+     */
+    static void insertionSort(byte[][] keys, Object[] values, int from, int to, int depth) {
+        for (int i = from + 1; i < to; i++) {
+            byte[] key = keys[i];
+            Object value = values == null ? null : values[i];
+            int j = i - 1;
+            while (j >= from && Arrays.compareUnsigned(keys[j], depth, keys[j].length, key, depth, key.length) > 0) {
+                keys[j + 1] = keys[j];
+                if (values != null) values[j + 1] = values[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            if (values != null) values[j + 1] = value;
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // Argsort: sorted permutation without moving the data
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Returns the permutation that sorts keys: keys[p[0]] <= keys[p[1]] <= ...
+     * keys is not modified. The sort is stable, so equal keys keep index order,
+     * which lets columnar tables be sorted by several columns one pass at a time.
+     *
+     * @param keys the column to order by
+     * @return row indices in sorted key order
+     */
+    public static int[] sortIndices(int[] keys) {
+        int n = keys.length;
+        long[] widened = new long[n];
+        for (int i = 0; i < n; i++) widened[i] = sortableBits(keys[i]);
+        return sortIndicesOfKeys(widened);
+    }
+
+    /**
+     * Returns the stable permutation that sorts keys; keys is not modified.
+     *
+     * @param keys the column to order by
+     * @return row indices in sorted key order
+     */
+    public static int[] sortIndices(long[] keys) {
+        return sortIndicesOfKeys(keys.clone());
+    }
+
+    /**
+     * Returns the stable permutation that sorts keys in Double.compare order
+     * (NaN last); keys is not modified.
+     *
+     * @param keys the column to order by
+     * @return row indices in sorted key order
+     */
+    public static int[] sortIndices(double[] keys) {
+        int n = keys.length;
+        long[] bits = new long[n];
+        for (int i = 0; i < n; i++) bits[i] = sortableBits(keys[i]);
+        return sortIndicesOfKeys(bits);
+    }
+
+    /**
+     * Maps an int to a non-negative long in the same order. The upper four bytes are
+     * always zero, so the long engine skips those passes.
+     */
+    static long sortableBits(int value) {
+        return (value ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+    }
+
+    // --------------------------------------------------------------------------------
+    // Objects ordered by an extracted primitive key (Schwartzian transform)
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Stable sort of objects by a long key. Each key is extracted exactly once into a
+     * packed long[], the (key, index) pairs are radix sorted, and the objects are then
+     * moved in a single gather pass. No comparator is called and the objects are
+     * touched only twice, instead of O(n log n) dereferences in a comparison sort.
+     *
+     * @param arr the objects to sort
+     * @param key extracts the sort key
+     */
+    public static <T> void sortByLongKey(T[] arr, ToLongFunction<? super T> key) {
+        int n = arr.length;
+        if (n < 2) return;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = key.applyAsLong(arr[i]);
+        permute(arr, sortIndicesOfKeys(keys));
+    }
+
+    /**
+     * Stable sort of objects by an int key; see sortByLongKey.
+     *
+     * @param arr the objects to sort
+     * @param key extracts the sort key
+     */
+    public static <T> void sortByIntKey(T[] arr, ToIntFunction<? super T> key) {
+        int n = arr.length;
+        if (n < 2) return;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = sortableBits(key.applyAsInt(arr[i]));
+        permute(arr, sortIndicesOfKeys(keys));
+    }
+
+    /**
+     * Stable sort of objects by a double key in Double.compare order; see sortByLongKey.
+     *
+     * @param arr the objects to sort
+     * @param key extracts the sort key
+     */
+    public static <T> void sortByDoubleKey(T[] arr, ToDoubleFunction<? super T> key) {
+        int n = arr.length;
+        if (n < 2) return;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = sortableBits(key.applyAsDouble(arr[i]));
+        permute(arr, sortIndicesOfKeys(keys));
+    }
+
+    /**
+     * Stable sort of objects by (primary, secondary), e.g. (symbol id, timestamp).
+     * Both key columns are extracted once; the indices are sorted by the secondary
+     * key, then stably by the primary key, and the objects move only once at the end.
+     *
+     * @param arr the objects to sort
+     * @param primary extracts the major key
+     * @param secondary extracts the key that breaks ties in primary
+     */
+    public static <T> void sortByLongKeys(T[] arr, ToLongFunction<? super T> primary,
+                                          ToLongFunction<? super T> secondary) {
+        int n = arr.length;
+        if (n < 2) return;
+        long[] major = new long[n];
+        long[] minor = new long[n];
+        for (int i = 0; i < n; i++) {
+            T item = arr[i];
+            major[i] = primary.applyAsLong(item);
+            minor[i] = secondary.applyAsLong(item);
+        }
+
+        // LSD order: minor key first, then a stable pass over the major key
+        int[] order = sortIndicesOfKeys(minor);
+        for (int i = 0; i < n; i++) minor[i] = major[order[i]];
+        radixSortSigned(minor, order);
+
+        permute(arr, order);
+    }
+
+    /**
+     * Rearranges arr so that arr[i] becomes the old arr[order[i]], in one gather pass.
+     */
+    static <T> void permute(T[] arr, int[] order) {
+        T[] source = arr.clone();
+        for (int i = 0; i < order.length; i++) arr[i] = source[order[i]];
+    }
+
+    /**
+     * Radix sorts a scratch copy of the keys carrying 0..n-1 and returns the indices.
+     */
+    static int[] sortIndicesOfKeys(long[] scratchKeys) {
+        int n = scratchKeys.length;
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) indices[i] = i;
+        radixSortSigned(scratchKeys, indices);
+        return indices;
+    }
+
+    /**
+     * Converts a histogram in place into exclusive prefix sums (starting write offsets).
+     */
+    static void toOffsets(int[] count) {
+        toOffsets(count, 0, count.length);
+    }
+
+    /**
+     * Same as toOffsets(count) for the slice count[from .. from + length).
+     */
+    static void toOffsets(int[] count, int from, int length) {
+        int sum = 0;
+        for (int r = from; r < from + length; r++) {
+            int c = count[r];
+            count[r] = sum;
+            sum += c;
+        }
+    }
+
+    /**
+     * Runs task(0) .. task(workers - 1) on the given pool and waits for all of them.
+     */
+    static void runChunks(ForkJoinPool pool, int workers, IntConsumer task) {
+        pool.submit(() -> IntStream.range(0, workers).parallel().forEach(task)).join();
+    }
+
+    static void checkBits(int bits) {
+        if (bits < 1 || bits > 16) {
+            throw new IllegalArgumentException("Digit width must be between 1 and 16 bits: " + bits);
+        }
+    }
+
     /**
      * Utility method to print the array.
      *
@@ -108,5 +1207,19 @@ public class RadixSort {
 
         System.out.println("Sorted array using Radix Sort:");
         printArray(arr);
+
+        int[] signed = {170, -45, 75, -90, 802, 24, -2, 66};
+        radixSortSigned(signed);
+        System.out.println("Sorted array with negatives using binary Radix Sort:");
+        printArray(signed);
+
+        int[] msd = {170, -45, 75, -90, 802, 24, -2, 66};
+        msdRadixSort(msd);
+        System.out.println("Sorted in place using MSD (American flag) Radix Sort:");
+        printArray(msd);
+
+        String[] words = {"banana", "apple", "cherry", "app", "éclair", "apricot"};
+        msdRadixSortUtf8(words);
+        System.out.println("Strings in UTF-8 order: " + String.join(" ", words));
     }
 }
@@ -0,0 +1,400 @@
+/**
+ * RecordSort.java
+ *
+ * Sorts fixed-width records packed in a byte[] or long[] block by a key field,
+ * without moving the records while the keys are compared.
+ *
+ * 1. Key extraction: for every record, 64 bits of its key go into a compact
+ *    array next to the record index (12 bytes per record, whatever the record size)
+ * 2. Key sort: the compact array is sorted with RadixSort (long keys with int
+ *    payloads) or with Introsort (32 key bits and the position packed in one long)
+ * 3. Ties: runs whose extracted bits are equal are sorted again on the next bits
+ *    of the key, until the key is exhausted; tiny runs use insertion sort
+ * 4. Payload move: the resulting order is applied once, either in place by
+ *    following the permutation's cycles (each record moves once, one record of
+ *    extra memory) or by gathering into a new block (sequential writes)
+ *
+ * order() stops after step 3 and returns the permutation, for callers that read
+ * records through it and never move the payloads at all.
+ *
+ * byte[] keys compare as unsigned bytes, lexicographically (like Arrays.compareUnsigned);
+ * long[] keys compare as signed longs, lexicographically. Sizes and offsets are in
+ * bytes for byte[] blocks and in longs for long[] blocks.
+ *
+ * Time Complexity: O(n * w) for the radix engine on w key words, O(n log n) for
+ *                  quick; plus O(n * recordSize) to move the payloads
+ * Space Complexity: O(n) for the compact array; O(1) extra records (cycles) or
+ *                   a second block (gather)
+ * Stable: Yes
+ *
+ * Sample usage:
+ *   RecordSort.sort(rows, 64, 0, 16);   // 64-byte rows, 16-byte key at offset 0
+ */
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class RecordSort {
+
+    /**
+     * Algorithm used on the compact key array.
+     */
+    public enum Engine {
+        /** LSD radix sort on 64 key bits per round. */
+        RADIX,
+        /** Introsort on 32 key bits per round. */
+        QUICK
+    }
+
+    // Runs of equal key bits up to this size are finished by insertion sort
+    static final int INSERTION_THRESHOLD = 16;
+
+    // --------------------------------------------------------------------------------
+    // byte[] blocks
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts the records of data in place by key, stably.
+     *
+     * @param data records of recordSize bytes, back to back
+     * @param recordSize bytes per record
+     * @param keyOffset offset of the key inside a record
+     * @param keyWidth key length in bytes
+     */
+    public static void sort(byte[] data, int recordSize, int keyOffset, int keyWidth) {
+        permute(data, recordSize, order(data, recordSize, keyOffset, keyWidth, Engine.RADIX));
+    }
+
+    /**
+     * Returns a new block holding the records of data sorted by key; data is not modified.
+     */
+    public static byte[] sortedCopy(byte[] data, int recordSize, int keyOffset, int keyWidth) {
+        return gather(data, recordSize, order(data, recordSize, keyOffset, keyWidth, Engine.RADIX));
+    }
+
+    /**
+     * Returns the indices of the records in key order, without moving any record:
+     * record order[i] is the i-th smallest.
+     *
+     * @param engine sorts the compact key array
+     */
+    public static int[] order(byte[] data, int recordSize, int keyOffset, int keyWidth, Engine engine) {
+        checkLayout(data.length, recordSize, keyOffset, keyWidth);
+        return order(new ByteKeys(data, recordSize, keyOffset, keyWidth), data.length / recordSize, engine);
+    }
+
+    /**
+     * Rearranges the records of data in place so that slot i holds the record that
+     * was at order[i], following the cycles of the permutation. order is left unchanged.
+     */
+    public static void permute(byte[] data, int recordSize, int[] order) {
+        checkOrder(data.length, recordSize, order);
+        byte[] saved = new byte[recordSize];
+        for (int start = 0; start < order.length; start++) {
+            if (order[start] < 0 || order[start] == start) continue;
+
+            // Move each record of the cycle into place; the first one waits in saved
+            System.arraycopy(data, start * recordSize, saved, 0, recordSize);
+            int slot = start;
+            while (true) {
+                int from = order[slot];
+                order[slot] = ~from;
+                if (from == start) break;
+                System.arraycopy(data, from * recordSize, data, slot * recordSize, recordSize);
+                slot = from;
+            }
+            System.arraycopy(saved, 0, data, slot * recordSize, recordSize);
+        }
+        restore(order);
+    }
+
+    /**
+     * Returns a new block whose slot i holds the record at order[i] of data.
+     */
+    public static byte[] gather(byte[] data, int recordSize, int[] order) {
+        checkOrder(data.length, recordSize, order);
+        byte[] out = new byte[data.length];
+        for (int i = 0; i < order.length; i++) {
+            System.arraycopy(data, order[i] * recordSize, out, i * recordSize, recordSize);
+        }
+        return out;
+    }
+
+    // --------------------------------------------------------------------------------
+    // long[] blocks
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Sorts the records of data in place by key, stably.
+     *
+     * @param data records of recordSize longs, back to back
+     * @param recordSize longs per record
+     * @param keyOffset offset of the key inside a record, in longs
+     * @param keyWidth key length in longs
+     */
+    public static void sort(long[] data, int recordSize, int keyOffset, int keyWidth) {
+        permute(data, recordSize, order(data, recordSize, keyOffset, keyWidth, Engine.RADIX));
+    }
+
+    /**
+     * Returns a new block holding the records of data sorted by key; data is not modified.
+     */
+    public static long[] sortedCopy(long[] data, int recordSize, int keyOffset, int keyWidth) {
+        return gather(data, recordSize, order(data, recordSize, keyOffset, keyWidth, Engine.RADIX));
+    }
+
+    /**
+     * Returns the indices of the records in key order, without moving any record.
+     *
+     * @param engine sorts the compact key array
+     */
+    public static int[] order(long[] data, int recordSize, int keyOffset, int keyWidth, Engine engine) {
+        checkLayout(data.length, recordSize, keyOffset, keyWidth);
+        return order(new LongKeys(data, recordSize, keyOffset, keyWidth), data.length / recordSize, engine);
+    }
+
+    /**
+     * Rearranges the records of data in place so that slot i holds the record that
+     * was at order[i]. order is left unchanged.
+     */
+    public static void permute(long[] data, int recordSize, int[] order) {
+        checkOrder(data.length, recordSize, order);
+        long[] saved = new long[recordSize];
+        for (int start = 0; start < order.length; start++) {
+            if (order[start] < 0 || order[start] == start) continue;
+
+            System.arraycopy(data, start * recordSize, saved, 0, recordSize);
+            int slot = start;
+            while (true) {
+                int from = order[slot];
+                order[slot] = ~from;
+                if (from == start) break;
+                System.arraycopy(data, from * recordSize, data, slot * recordSize, recordSize);
+                slot = from;
+            }
+            System.arraycopy(saved, 0, data, slot * recordSize, recordSize);
+        }
+        restore(order);
+    }
+
+    /**
+     * Returns a new block whose slot i holds the record at order[i] of data.
+     */
+    public static long[] gather(long[] data, int recordSize, int[] order) {
+        checkOrder(data.length, recordSize, order);
+        long[] out = new long[data.length];
+        for (int i = 0; i < order.length; i++) {
+            System.arraycopy(data, order[i] * recordSize, out, i * recordSize, recordSize);
+        }
+        return out;
+    }
+
+    // --------------------------------------------------------------------------------
+    // Key sort
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Reads keys as one unsigned big-endian bit string per record, so that both
+     * block types share the same key sort.
+     */
+    interface Keys {
+        /** Length of every key in bits. */
+        int bits();
+
+        /** The 64 key bits of record starting at bit offset (a multiple of 32), zero past the end. */
+        long word(int record, int offset);
+    }
+
+    /**
+     * Unsigned bytes, compared lexicographically.
+     */
+    static final class ByteKeys implements Keys {
+        private final byte[] data;
+        private final ByteBuffer view;
+        private final int recordSize, keyOffset, keyWidth;
+
+        ByteKeys(byte[] data, int recordSize, int keyOffset, int keyWidth) {
+            this.data = data;
+            this.view = ByteBuffer.wrap(data);
+            this.recordSize = recordSize;
+            this.keyOffset = keyOffset;
+            this.keyWidth = keyWidth;
+        }
+
+        @Override
+        public int bits() {
+            return keyWidth * 8;
+        }
+
+        @Override
+        public long word(int record, int offset) {
+            int skip = offset >>> 3;
+            int at = record * recordSize + keyOffset + skip;
+            int left = keyWidth - skip;
+            if (left >= Long.BYTES) return view.getLong(at);
+            long word = 0;
+            for (int b = 0; b < left; b++) {
+                word |= (data[at + b] & 0xFFL) << (56 - 8 * b);
+            }
+            return word;
+        }
+    }
+
+    /**
+     * Signed longs, compared lexicographically; the sign bit of each long is
+     * flipped so that they compare as unsigned bits.
+     */
+    static final class LongKeys implements Keys {
+        private final long[] data;
+        private final int recordSize, keyOffset, keyWidth;
+
+        LongKeys(long[] data, int recordSize, int keyOffset, int keyWidth) {
+            this.data = data;
+            this.recordSize = recordSize;
+            this.keyOffset = keyOffset;
+            this.keyWidth = keyWidth;
+        }
+
+        @Override
+        public int bits() {
+            return keyWidth * 64;
+        }
+
+        @Override
+        public long word(int record, int offset) {
+            int at = record * recordSize + keyOffset;
+            int w = offset >>> 6;
+            long hi = data[at + w] ^ Long.MIN_VALUE;
+            if ((offset & 63) == 0) return hi;
+            long lo = w + 1 < keyWidth ? data[at + w + 1] ^ Long.MIN_VALUE : 0;
+            return hi << 32 | lo >>> 32;
+        }
+    }
+
+    static int[] order(Keys keys, int n, Engine engine) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        sortRange(keys, engine, order, 0, n, 0);
+        return order;
+    }
+
+    /**
+     * Sorts order[from..to) by the key bits from offset on. The range is in record
+     * order among equal keys on entry and stays so (both rounds are stable).
+     */
+    static void sortRange(Keys keys, Engine engine, int[] order, int from, int to, int offset) {
+        int n = to - from;
+        if (n < 2 || offset >= keys.bits()) return;
+        if (n <= INSERTION_THRESHOLD) {
+            insertionSort(keys, order, from, to, offset);
+            return;
+        }
+
+        // Step 1: Sort the compact array by the next step bits of each key
+        long[] prefix = new long[n];
+        int step;
+        if (engine == Engine.RADIX) {
+            step = Long.SIZE;
+            int[] records = Arrays.copyOfRange(order, from, to);
+            for (int i = 0; i < n; i++) prefix[i] = keys.word(records[i], offset) ^ Long.MIN_VALUE;
+            RadixSort.radixSortSigned(prefix, records);
+            System.arraycopy(records, 0, order, from, n);
+        } else {
+            // High half: 32 key bits; low half: position in the range, which breaks ties stably
+            step = Integer.SIZE;
+            for (int i = 0; i < n; i++) {
+                prefix[i] = (keys.word(order[from + i], offset) ^ Long.MIN_VALUE) & 0xFFFFFFFF00000000L | i;
+            }
+            QuickSort.quickSortIntro(prefix, 0, n - 1);
+            int[] records = Arrays.copyOfRange(order, from, to);
+            for (int i = 0; i < n; i++) {
+                order[from + i] = records[(int) prefix[i]];
+                prefix[i] >>= 32;
+            }
+        }
+
+        // Step 2: Runs with equal bits are ordered by the rest of the key
+        if (offset + step >= keys.bits()) return;
+        for (int start = 0; start < n; ) {
+            int end = start + 1;
+            while (end < n && prefix[end] == prefix[start]) end++;
+            if (end - start > 1) sortRange(keys, engine, order, from + start, from + end, offset + step);
+            start = end;
+        }
+    }
+
+    /**
+     * Stable insertion sort of order[from..to) by the key bits from offset on.
+     */
+    static void insertionSort(Keys keys, int[] order, int from, int to, int offset) {
+        for (int i = from + 1; i < to; i++) {
+            int record = order[i];
+            int j = i - 1;
+            while (j >= from && compare(keys, order[j], record, offset) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = record;
+        }
+    }
+
+    static int compare(Keys keys, int a, int b, int offset) {
+        for (int bit = offset; bit < keys.bits(); bit += Long.SIZE) {
+            int c = Long.compareUnsigned(keys.word(a, bit), keys.word(b, bit));
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    // --------------------------------------------------------------------------------
+    // Validation
+    // --------------------------------------------------------------------------------
+
+    private static void checkLayout(int length, int recordSize, int keyOffset, int keyWidth) {
+        if (recordSize < 1) throw new IllegalArgumentException("Record size must be positive: " + recordSize);
+        if (length % recordSize != 0) {
+            throw new IllegalArgumentException(length + " is not a whole number of records of size " + recordSize);
+        }
+        if (keyOffset < 0 || keyWidth < 1 || keyOffset + keyWidth > recordSize) {
+            throw new IllegalArgumentException("Key [" + keyOffset + ", " + (keyOffset + keyWidth)
+                    + ") does not fit in a record of size " + recordSize);
+        }
+    }
+
+    private static void checkOrder(int length, int recordSize, int[] order) {
+        if (recordSize < 1 || (long) order.length * recordSize != length) {
+            throw new IllegalArgumentException("Order has " + order.length + " entries for "
+                    + length + " / " + recordSize + " records");
+        }
+    }
+
+    // Clears the visited marks left by permute
+    private static void restore(int[] order) {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] < 0) order[i] = ~order[i];
+        }
+    }
+
+    // Sample usage
+    public static void main(String[] args) {
+        // 8-byte rows: a 4-byte key followed by a 4-byte payload
+        String[] rows = {"pearfive", "applone_", "figthree", "appltwo_", "kiwifour"};
+        byte[] data = new byte[rows.length * 8];
+        for (int i = 0; i < rows.length; i++) {
+            System.arraycopy(rows[i].getBytes(java.nio.charset.StandardCharsets.US_ASCII), 0, data, i * 8, 8);
+        }
+
+        int[] order = order(data, 8, 0, 4, Engine.QUICK);
+        System.out.println("Indirect order: " + Arrays.toString(order));
+
+        sort(data, 8, 0, 4);
+        System.out.println("Sorted rows:");
+        for (int i = 0; i < rows.length; i++) {
+            System.out.println(new String(data, i * 8, 8, java.nio.charset.StandardCharsets.US_ASCII));
+        }
+
+        // long[] rows: key (2 longs) then payload (2 longs)
+        long[] table = {5, 1, 500, 501, -3, 9, 300, 301, 5, 0, 400, 401};
+        System.out.println("Long rows: " + Arrays.toString(sortedCopy(table, 4, 0, 2)));
+    }
+}
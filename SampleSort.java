@@ -0,0 +1,273 @@
+/**
+ * SampleSort.java
+ *
+ * Parallel sample sort for large int[] and long[] arrays on a ForkJoinPool.
+ * Unlike Quick Sort, whose first partition step is a sequential pass over all n
+ * elements, every phase here runs on all workers:
+ *
+ * 1. Sampling:  k * OVERSAMPLING random elements are sorted and every
+ *               OVERSAMPLING-th one becomes a splitter (k - 1 splitters for k buckets)
+ * 2. Classify:  each worker walks its chunk through a search tree over the splitters
+ *               (implicit layout, one comparison per level, no data-dependent branch)
+ *               and counts how many of its elements fall into each bucket
+ * 3. Scatter:   per-worker prefix offsets give every (worker, bucket) pair its own
+ *               slice of a shared output buffer, so the workers write without locks
+ * 4. Sort:      buckets are sorted concurrently with Introsort and copied back
+ *
+ * Time Complexity: O(n log n / p) expected with p workers
+ * Space Complexity: n elements of scratch plus one byte per element for bucket ids
+ * Stable: No
+ *
+ * Many equal keys can leave one bucket much larger than the rest (equal splitters
+ * send every duplicate to the same bucket); Introsort's three-way partition keeps
+ * that bucket linear, but it is sorted by a single worker.
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class SampleSort {
+
+    // Below this size a sequential Introsort is faster than any parallel setup
+    static final int PARALLEL_THRESHOLD = 1 << 17;
+
+    // Samples taken per bucket; more samples give more even buckets
+    static final int OVERSAMPLING = 16;
+
+    // Buckets per worker, so that uneven buckets still balance across workers
+    static final int BUCKETS_PER_WORKER = 16;
+
+    // Bucket ids are stored in a byte each
+    static final int MAX_BUCKETS = 256;
+
+    /**
+     * Sorts arr on the common ForkJoinPool.
+     *
+     * @param arr the array to sort
+     */
+    public static void parallelSampleSort(int[] arr) {
+        parallelSampleSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts arr using the workers of the given pool.
+     *
+     * @param arr the array to sort
+     * @param pool the pool that runs classification, scatter and bucket sorts
+     */
+    public static void parallelSampleSort(int[] arr, ForkJoinPool pool) {
+        int n = arr.length;
+        int workers = pool.getParallelism();
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            QuickSort.quickSortIntro(arr, 0, n - 1);
+            return;
+        }
+
+        int k = bucketCount(workers);
+        int levels = Integer.numberOfTrailingZeros(k);
+
+        // Step 1: Sort a random sample and take evenly spaced splitters
+        int[] sample = new int[k * OVERSAMPLING];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < sample.length; i++) sample[i] = arr[random.nextInt(n)];
+        QuickSort.quickSortIntro(sample, 0, sample.length - 1);
+        int[] sorted = new int[k - 1];
+        for (int i = 1; i < k; i++) sorted[i - 1] = sample[i * OVERSAMPLING];
+        int[] tree = new int[k];
+        buildTree(sorted, tree, 1, 0, k - 1);
+
+        // Step 2: Classify every element and count per (worker, bucket)
+        int chunk = (n + workers - 1) / workers;
+        byte[] ids = new byte[n];
+        int[][] counts = new int[workers][k];
+        RadixSort.runChunks(pool, workers, w -> {
+            int[] local = counts[w];
+            int end = Math.min(n, (w + 1) * chunk);
+            for (int i = w * chunk; i < end; i++) {
+                int v = arr[i];
+                int j = 1;
+                for (int l = 0; l < levels; l++) {
+                    j = 2 * j + (v > tree[j] ? 1 : 0);
+                }
+                int b = j - k;
+                ids[i] = (byte) b;
+                local[b]++;
+            }
+        });
+
+        // Step 3: Turn the counts into write offsets and scatter into the buffer
+        int[] bucketStart = new int[k + 1];
+        offsets(counts, bucketStart);
+        int[] aux = new int[n];
+        RadixSort.runChunks(pool, workers, w -> {
+            int[] offset = counts[w];
+            int end = Math.min(n, (w + 1) * chunk);
+            for (int i = w * chunk; i < end; i++) {
+                aux[offset[ids[i] & 0xFF]++] = arr[i];
+            }
+        });
+
+        // Step 4: Sort the buckets concurrently and copy them back
+        RadixSort.runChunks(pool, k, b -> {
+            int from = bucketStart[b], to = bucketStart[b + 1];
+            QuickSort.quickSortIntro(aux, from, to - 1);
+            System.arraycopy(aux, from, arr, from, to - from);
+        });
+    }
+
+    /**
+     * Sorts a long array on the common ForkJoinPool.
+     *
+     * @param arr the array to sort
+     */
+    public static void parallelSampleSort(long[] arr) {
+        parallelSampleSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts a long array using the workers of the given pool.
+     *
+     * @param arr the array to sort
+     * @param pool the pool that runs classification, scatter and bucket sorts
+     */
+    public static void parallelSampleSort(long[] arr, ForkJoinPool pool) {
+        int n = arr.length;
+        int workers = pool.getParallelism();
+        if (n < PARALLEL_THRESHOLD || workers < 2) {
+            QuickSort.quickSortIntro(arr, 0, n - 1);
+            return;
+        }
+
+        int k = bucketCount(workers);
+        int levels = Integer.numberOfTrailingZeros(k);
+
+        long[] sample = new long[k * OVERSAMPLING];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < sample.length; i++) sample[i] = arr[random.nextInt(n)];
+        QuickSort.quickSortIntro(sample, 0, sample.length - 1);
+        long[] sorted = new long[k - 1];
+        for (int i = 1; i < k; i++) sorted[i - 1] = sample[i * OVERSAMPLING];
+        long[] tree = new long[k];
+        buildTree(sorted, tree, 1, 0, k - 1);
+
+        int chunk = (n + workers - 1) / workers;
+        byte[] ids = new byte[n];
+        int[][] counts = new int[workers][k];
+        RadixSort.runChunks(pool, workers, w -> {
+            int[] local = counts[w];
+            int end = Math.min(n, (w + 1) * chunk);
+            for (int i = w * chunk; i < end; i++) {
+                long v = arr[i];
+                int j = 1;
+                for (int l = 0; l < levels; l++) {
+                    j = 2 * j + (v > tree[j] ? 1 : 0);
+                }
+                int b = j - k;
+                ids[i] = (byte) b;
+                local[b]++;
+            }
+        });
+
+        int[] bucketStart = new int[k + 1];
+        offsets(counts, bucketStart);
+        long[] aux = new long[n];
+        RadixSort.runChunks(pool, workers, w -> {
+            int[] offset = counts[w];
+            int end = Math.min(n, (w + 1) * chunk);
+            for (int i = w * chunk; i < end; i++) {
+                aux[offset[ids[i] & 0xFF]++] = arr[i];
+            }
+        });
+
+        RadixSort.runChunks(pool, k, b -> {
+            int from = bucketStart[b], to = bucketStart[b + 1];
+            QuickSort.quickSortIntro(aux, from, to - 1);
+            System.arraycopy(aux, from, arr, from, to - from);
+        });
+    }
+
+    /**
+     * Number of buckets for the given worker count: a power of two so that the
+     * search tree is complete, between 2 and MAX_BUCKETS.
+     */
+    static int bucketCount(int workers) {
+        long wanted = (long) workers * BUCKETS_PER_WORKER;
+        return (int) Math.max(2, Math.min(MAX_BUCKETS, Long.highestOneBit(wanted)));
+    }
+
+    /**
+     * Lays out sorted[lo..hi) as an implicit binary search tree: node j has children
+     * 2j and 2j + 1. Walking it from j = 1 with j = 2j + (v > tree[j]) for log2(k)
+     * levels ends at leaf k + bucket.
+     */
+    static void buildTree(int[] sorted, int[] tree, int node, int lo, int hi) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        tree[node] = sorted[mid];
+        buildTree(sorted, tree, 2 * node, lo, mid);
+        buildTree(sorted, tree, 2 * node + 1, mid + 1, hi);
+    }
+
+    static void buildTree(long[] sorted, long[] tree, int node, int lo, int hi) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        tree[node] = sorted[mid];
+        buildTree(sorted, tree, 2 * node, lo, mid);
+        buildTree(sorted, tree, 2 * node + 1, mid + 1, hi);
+    }
+
+    /**
+     * Replaces counts[w][b] with the first output index of worker w's elements in
+     * bucket b (buckets in order, workers in order within a bucket) and fills
+     * bucketStart[b] with the start of each bucket, bucketStart[k] = n.
+     */
+    static void offsets(int[][] counts, int[] bucketStart) {
+        int k = bucketStart.length - 1;
+        int sum = 0;
+        for (int b = 0; b < k; b++) {
+            bucketStart[b] = sum;
+            for (int[] local : counts) {
+                int c = local[b];
+                local[b] = sum;
+                sum += c;
+            }
+        }
+        bucketStart[k] = sum;
+    }
+
+    /**
+     * Utility method to print an array.
+     *
+     * @param arr the array to print
+     */
+    public static void printArray(int[] arr) {
+        for (int val : arr) {
+            System.out.print(val + " ");
+        }
+        System.out.println();
+    }
+
+    // Sample usage
+    public static void main(String[] args) {
+        int[] arr = {38, 27, 43, 3, 9, 82, 10};
+
+        System.out.println("Original array:");
+        printArray(arr);
+
+        parallelSampleSort(arr);
+
+        System.out.println("Sorted array:");
+        printArray(arr);
+
+        int[] large = new java.util.Random(42).ints(10_000_000).toArray();
+        int[] copy = large.clone();
+        long start = System.nanoTime();
+        parallelSampleSort(large);
+        long sampleTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        QuickSort.quickSortRandomPivot(copy, 0, copy.length - 1);
+        long quickTime = System.nanoTime() - start;
+        System.out.printf("10M ints: sample sort %d ms, random-pivot Quick Sort %d ms%n",
+                sampleTime / 1_000_000, quickTime / 1_000_000);
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * SmallSort.java
+ *
+ * Base-case kernels for the recursive engines. Introsort, Block Quicksort, the
+ * merge sorts and the LSD radix engine stop recursing at a few dozen elements and
+ * hand the leaf to sort(arr, from, n):
+ *
+ * 1. n <= 16:  a fixed sorting network. The comparator sequence depends only on n,
+ *              so every compare-exchange is a min/max pair the JIT compiles to
+ *              conditional moves; unlike insertion sort there is no data-dependent
+ *              branch to mispredict.
+ * 2. n <= 256: a bitonic sorting network on SIMD registers (VectorSmallSort, built on
+ *              the jdk.incubator.vector module), when that module is available
+ * 3. otherwise insertion sort up to SCALAR_MAX elements, Introsort above that
+ *
+ * Networks: sizes 2 to 12 and 15 to 16 use the smallest known comparator counts
+ * (1, 3, 5, 9, 12, 16, 19, 25, 29, 35, 39, 56, 60); 13 and 14 are pruned from the
+ * 16-input network (46 and 51 comparators).
+ *
+ * Vector API: JDK 17 ships it as an incubator module, so it must be enabled with
+ *   java --add-modules jdk.incubator.vector ...
+ * Without that flag (or with -Dsorting.vector=false) the vector kernel is never
+ * loaded and the scalar path is used instead.
+ *
+ * Time Complexity: O(n log^2 n) comparisons for the networks, O(1) per leaf in practice
+ * Space Complexity: O(1); the vector kernel keeps one 256-element buffer per thread
+ * Stable: No
+ */
+
+import java.util.Arrays;
+
+public class SmallSort {
+
+    // Largest size handled by a sorting network
+    static final int NETWORK_MAX = 16;
+
+    // Largest size handled by the vector kernel
+    static final int VECTOR_MAX = 256;
+
+    // Without the vector kernel, insertion sort is used up to this size
+    static final int SCALAR_MAX = 32;
+
+    /**
+     * Sorts arr[from..from + n) in place. Implemented by VectorSmallSort.
+     */
+    interface Kernel {
+        void sort(int[] arr, int from, int n);
+    }
+
+    // Loaded reflectively so that this class links without the incubator module
+    static final Kernel VECTOR = loadVectorKernel();
+
+    // NETWORKS[n] holds the comparator pairs (i, j), i < j, of the network for n inputs
+    static final int[][] NETWORKS = {
+        {},
+        {},
+        {0, 1},
+        {0, 2, 0, 1, 1, 2},
+        {0, 1, 2, 3, 0, 2, 1, 3, 1, 2},
+        {0, 3, 1, 4, 0, 2, 1, 3, 0, 1, 2, 4, 1, 2, 3, 4, 2, 3},
+        {0, 5, 1, 3, 2, 4, 1, 2, 3, 4, 0, 3, 2, 5, 0, 1, 2, 3, 4, 5, 1, 2, 3, 4},
+        {0, 6, 2, 3, 4, 5, 0, 2, 1, 4, 3, 6, 0, 1, 2, 5, 3, 4, 1, 2, 4, 6,
+         2, 3, 4, 5, 1, 2, 3, 4, 5, 6},
+        {0, 2, 1, 3, 4, 6, 5, 7, 0, 4, 1, 5, 2, 6, 3, 7, 0, 1, 2, 3, 4, 5, 6, 7,
+         2, 4, 3, 5, 1, 4, 3, 6, 1, 2, 3, 4, 5, 6},
+        {0, 3, 1, 7, 2, 5, 4, 8, 0, 7, 2, 4, 3, 8, 5, 6, 0, 2, 1, 3, 4, 5, 7, 8,
+         1, 4, 3, 6, 5, 7, 0, 1, 2, 4, 3, 5, 6, 8, 2, 3, 4, 5, 6, 7, 1, 2, 3, 4, 5, 6},
+        {0, 8, 1, 9, 2, 7, 3, 5, 4, 6, 0, 2, 1, 4, 5, 8, 7, 9, 0, 3, 2, 4, 5, 7, 6, 9,
+         0, 1, 3, 6, 8, 9, 1, 5, 2, 3, 4, 8, 6, 7, 1, 2, 3, 5, 4, 6, 7, 8,
+         2, 3, 4, 5, 6, 7, 3, 4, 5, 6},
+        {0, 9, 1, 6, 2, 4, 3, 7, 5, 8, 0, 1, 3, 5, 4, 10, 6, 9, 7, 8, 1, 3, 2, 5, 4, 7, 8, 10,
+         0, 4, 1, 2, 3, 7, 5, 9, 6, 8, 0, 1, 2, 6, 4, 5, 7, 8, 9, 10,
+         2, 4, 3, 6, 5, 7, 8, 9, 1, 2, 3, 4, 5, 6, 7, 8, 2, 3, 4, 5, 6, 7},
+        {0, 8, 1, 7, 2, 6, 3, 11, 4, 10, 5, 9, 0, 1, 2, 5, 3, 4, 6, 9, 7, 8, 10, 11,
+         0, 2, 1, 6, 5, 10, 9, 11, 0, 3, 1, 2, 4, 6, 5, 7, 8, 11, 9, 10,
+         1, 4, 3, 5, 6, 8, 7, 10, 1, 3, 2, 5, 6, 9, 8, 10, 2, 3, 4, 5, 6, 7, 8, 9,
+         4, 6, 5, 7, 3, 4, 5, 6, 7, 8},
+        null,
+        null,
+        null,
+        {0, 13, 1, 12, 2, 15, 3, 14, 4, 8, 5, 6, 7, 11, 9, 10,
+         0, 5, 1, 7, 2, 9, 3, 4, 6, 13, 8, 14, 10, 15, 11, 12,
+         0, 1, 2, 3, 4, 5, 6, 8, 7, 9, 10, 11, 12, 13, 14, 15,
+         0, 2, 1, 3, 4, 10, 5, 11, 6, 7, 8, 9, 12, 14, 13, 15,
+         1, 2, 3, 12, 4, 6, 5, 7, 8, 10, 9, 11, 13, 14,
+         1, 4, 2, 6, 5, 8, 7, 10, 9, 13, 11, 14,
+         2, 4, 3, 6, 9, 12, 11, 13,
+         3, 5, 6, 8, 7, 9, 10, 12,
+         3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+         6, 7, 8, 9}
+    };
+
+    static {
+        for (int n = 13; n < NETWORK_MAX; n++) {
+            NETWORKS[n] = prune(NETWORKS[NETWORK_MAX], n);
+        }
+    }
+
+    /**
+     * Sorts arr[from..from + n) with the fastest available kernel for its size.
+     *
+     * @param arr the array containing the range
+     * @param from index of the first element
+     * @param n number of elements
+     */
+    public static void sort(int[] arr, int from, int n) {
+        if (n <= NETWORK_MAX) {
+            sortNetwork(arr, from, n);
+        } else if (n <= VECTOR_MAX && VECTOR != null) {
+            VECTOR.sort(arr, from, n);
+        } else {
+            sortScalar(arr, from, n);
+        }
+    }
+
+    /**
+     * Same as sort(arr, from, n) without the vector kernel.
+     */
+    public static void sortScalar(int[] arr, int from, int n) {
+        if (n <= NETWORK_MAX) {
+            sortNetwork(arr, from, n);
+        } else if (n <= SCALAR_MAX) {
+            QuickSort.insertionSort(arr, from, from + n - 1);
+        } else {
+            QuickSort.quickSortIntro(arr, from, from + n - 1);
+        }
+    }
+
+    /**
+     * Runs the sorting network for n inputs (n <= NETWORK_MAX) over arr[from..from + n).
+     */
+    static void sortNetwork(int[] arr, int from, int n) {
+        int[] network = NETWORKS[n];
+        for (int c = 0; c < network.length; c += 2) {
+            int i = from + network[c], j = from + network[c + 1];
+            int a = arr[i], b = arr[j];
+            arr[i] = Math.min(a, b);
+            arr[j] = Math.max(a, b);
+        }
+    }
+
+    /**
+     * Drops every comparator touching an input >= n. The top inputs of a network can
+     * be thought of as holding +infinity: every comparator on them leaves them in
+     * place, so removing those comparators sorts the remaining n inputs.
+     */
+    static int[] prune(int[] network, int n) {
+        int kept = 0;
+        int[] pruned = new int[network.length];
+        for (int c = 0; c < network.length; c += 2) {
+            if (network[c + 1] < n) {
+                pruned[kept++] = network[c];
+                pruned[kept++] = network[c + 1];
+            }
+        }
+        return Arrays.copyOf(pruned, kept);
+    }
+
+    /**
+     * Returns the vector kernel, or null if it is disabled, the incubator module is
+     * not in the boot layer, or the hardware has too few lanes for it to pay off.
+     */
+    static Kernel loadVectorKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("sorting.vector", "true"))) return null;
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            Class<?> kernel = Class.forName("VectorSmallSort");
+            if (!(Boolean) kernel.getDeclaredMethod("isSupported").invoke(null)) return null;
+            return (Kernel) kernel.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Utility method to print an array.
+     *
+     * @param arr the array to print
+     */
+    public static void printArray(int[] arr) {
+        for (int val : arr) {
+            System.out.print(val + " ");
+        }
+        System.out.println();
+    }
+
+    // Sample usage
+    public static void main(String[] args) {
+        int[] arr = {38, 27, 43, 3, 9, 82, 10, 55, 1, 70, 64, 12};
+
+        System.out.println("Original array:");
+        printArray(arr);
+
+        sort(arr, 0, arr.length);
+
+        System.out.println("Sorted array:");
+        printArray(arr);
+
+        int[] large = new java.util.Random(42).ints(200, 0, 1000).toArray();
+        sort(large, 0, large.length);
+        System.out.println("200 elements with " + (VECTOR != null ? "the vector kernel:" : "the scalar fallback:"));
+        printArray(large);
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * SortContext.java
+ *
+ * Reusable scratch memory for the engines that need a buffer: the buffered and
+ * top-down Merge Sorts, the LSD Radix Sorts and Counting Sort. Each of them has an
+ * overload taking a SortContext. A context grows its buffers on demand and keeps
+ * them, so once it has seen the largest input, repeated sorts allocate nothing.
+ *
+ * A context is not thread-safe. Either confine one to a thread (e.g. a request
+ * handler owns one) or use current(), which hands out one context per thread.
+ *
+ * Typical use for many small sorts:
+ *   SortContext ctx = SortContext.current();
+ *   RadixSort.radixSortSigned(keys, RadixSort.DEFAULT_BITS, ctx);
+ *   CountingSort.countSort(values, ctx);
+ *
+ * Buffers are only returned to the GC by release() or when the context itself
+ * becomes unreachable. A context that once sorted a huge array keeps the memory.
+ */
+
+import java.util.Arrays;
+
+public class SortContext {
+
+    private static final ThreadLocal<SortContext> CURRENT = ThreadLocal.withInitial(SortContext::new);
+
+    private static final int[] EMPTY_INTS = new int[0];
+    private static final long[] EMPTY_LONGS = new long[0];
+
+    private int[] intScratch = EMPTY_INTS;
+    private long[] longScratch = EMPTY_LONGS;
+    private int[] counts = EMPTY_INTS;
+
+    /**
+     * Returns the context owned by the calling thread, creating it on first use.
+     */
+    public static SortContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns an int buffer with at least n elements. Its contents are unspecified
+     * and it stays valid until the next intScratch call on this context.
+     *
+     * @param n the minimum number of elements
+     */
+    public int[] intScratch(int n) {
+        if (intScratch.length < n) intScratch = new int[grow(intScratch.length, n)];
+        return intScratch;
+    }
+
+    /**
+     * Returns a long buffer with at least n elements. Its contents are unspecified
+     * and it stays valid until the next longScratch call on this context.
+     *
+     * @param n the minimum number of elements
+     */
+    public long[] longScratch(int n) {
+        if (longScratch.length < n) longScratch = new long[grow(longScratch.length, n)];
+        return longScratch;
+    }
+
+    /**
+     * Returns a histogram buffer whose first n elements are zero. It is separate
+     * from intScratch, so an engine can hold both at once.
+     *
+     * @param n the number of counters needed
+     */
+    public int[] counts(int n) {
+        if (counts.length < n) {
+            counts = new int[grow(counts.length, n)];
+        } else {
+            Arrays.fill(counts, 0, n, 0);
+        }
+        return counts;
+    }
+
+    /**
+     * Drops every buffer so the memory can be collected. The context stays usable.
+     */
+    public void release() {
+        intScratch = EMPTY_INTS;
+        longScratch = EMPTY_LONGS;
+        counts = EMPTY_INTS;
+    }
+
+    /**
+     * @return the bytes currently held by this context's buffers
+     */
+    public long retainedBytes() {
+        return (long) intScratch.length * Integer.BYTES
+                + (long) longScratch.length * Long.BYTES
+                + (long) counts.length * Integer.BYTES;
+    }
+
+    /**
+     * New capacity of at least n, growing by half so a slowly increasing size
+     * does not reallocate on every call.
+     */
+    static int grow(int current, int n) {
+        long grown = current + (long) (current >> 1);
+        return (int) Math.max(Math.min(grown, Integer.MAX_VALUE - 8), n);
+    }
+
+    // Sample usage
+    public static void main(String[] args) {
+        SortContext ctx = new SortContext();
+        java.util.Random random = new java.util.Random(42);
+
+        for (int round = 0; round < 3; round++) {
+            int[] arr = random.ints(5000, -1000, 1000).toArray();
+            CountingSort.countSort(arr, ctx);
+            int[] keys = random.ints(5000).toArray();
+            RadixSort.radixSortSigned(keys, RadixSort.DEFAULT_BITS, ctx);
+            MergeSort.bufferedMergeSort(random.ints(5000).toArray(), ctx);
+            System.out.println("Round " + round + ": context holds " + ctx.retainedBytes() + " bytes");
+        }
+    }
+}
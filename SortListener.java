@@ -0,0 +1,90 @@
+/**
+ * SortListener.java
+ *
+ * Optional hook through which the instrumented engines report what they did:
+ * comparisons, swaps and moves, partition shapes and recursion depth, scratch bytes
+ * allocated, and the time spent in each phase. SortMetrics is the collecting
+ * implementation; NONE ignores everything.
+ *
+ * Engines call the listener at phase or partition granularity, never per element.
+ * Counts are derived from loop bounds after the fact (for example, a Dutch-flag
+ * partition of m elements whose "<" side ends at lt made m + (high - lt + 1)
+ * comparisons), so a disabled listener adds no work to the inner loops. With NONE,
+ * every call is an empty default method that the JIT inlines away, and clock()
+ * returning 0 means System.nanoTime() is never read.
+ *
+ * Instrumented entry points:
+ * - RadixSort.radixSortSigned(int[], bits, SortContext, SortListener)
+ * - CountingSort.countSort(int[], SortContext, SortListener)
+ * - HeapSort.heapSortBottomUp(int[], low, high, arity, SortListener)
+ * - MergeSort.bufferedMergeSort(int[], SortContext, SortListener)
+ * - QuickSort.quickSortIntro(int[], low, high, SortListener)
+ */
+
+public interface SortListener {
+
+    /**
+     * Listener that records nothing.
+     */
+    SortListener NONE = new SortListener() { };
+
+    /**
+     * Timed phases. Each engine reports the subset that applies to it.
+     */
+    enum Phase {
+        HISTOGRAM,      // Radix / Counting: digit or value counts (and the min/max scan)
+        PREFIX_SUM,     // Radix / Counting: counts turned into write offsets
+        SCATTER,        // Radix / Counting: elements written to their slots
+        HEAP_BUILD,     // Heap: heapify
+        HEAP_EXTRACT,   // Heap: repeated root extraction
+        SPLIT,          // Merge: descent and insertion-sorted leaves
+        MERGE,          // Merge: merging sorted halves
+        PARTITION       // Quick: pivot selection and partitioning
+    }
+
+    /**
+     * Returns a timestamp for the start of a phase, or 0 when timing is off.
+     */
+    default long clock() {
+        return 0;
+    }
+
+    /**
+     * Ends a phase that started at start (a value from clock() or a previous lap)
+     * and returns the timestamp at which the next phase starts.
+     */
+    default long lap(Phase phase, long start) {
+        return 0;
+    }
+
+    /**
+     * Reports key comparisons.
+     */
+    default void comparisons(long count) {
+    }
+
+    /**
+     * Reports element swaps (each swap exchanges two elements).
+     */
+    default void swaps(long count) {
+    }
+
+    /**
+     * Reports single element writes other than swaps (scatters, merges, copies).
+     */
+    default void moves(long count) {
+    }
+
+    /**
+     * Reports scratch memory allocated by the engine.
+     */
+    default void allocated(long bytes) {
+    }
+
+    /**
+     * Reports one partition step at the given recursion depth (0 for the top call)
+     * that left left elements on one side and right elements on the other.
+     */
+    default void partition(int depth, int left, int right) {
+    }
+}
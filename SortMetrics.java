@@ -0,0 +1,268 @@
+/**
+ * SortMetrics.java
+ *
+ * SortListener that adds up everything reported to it. One instance can collect a
+ * single sort or many (call reset() between them, or keep accumulating for a
+ * request). Not thread-safe: use one instance per thread.
+ *
+ * Export:
+ * - forEach(BiConsumer) yields every value under a stable dotted name
+ *   ("sort.comparisons", "sort.phase.scatter.nanos", ...), ready to be fed into
+ *   gauges or counters of a Micrometer-style registry
+ * - commitEvent(engine, length) emits a JFR event (sorting.Sort) with the same
+ *   values, visible in JDK Mission Control or any JFR streaming consumer
+ *
+ * Sample usage:
+ *   SortMetrics metrics = new SortMetrics();
+ *   RadixSort.radixSortSigned(arr, RadixSort.DEFAULT_BITS, ctx, metrics);
+ *   metrics.commitEvent("radix", arr.length);
+ */
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+public class SortMetrics implements SortListener {
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private long comparisons;
+    private long swaps;
+    private long moves;
+    private long allocatedBytes;
+    private long partitions;
+    private int maxDepth;
+    private double worstImbalance;
+    private final long[] phaseNanos = new long[PHASES.length];
+
+    @Override
+    public long clock() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long lap(Phase phase, long start) {
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - start;
+        return now;
+    }
+
+    @Override
+    public void comparisons(long count) {
+        comparisons += count;
+    }
+
+    @Override
+    public void swaps(long count) {
+        swaps += count;
+    }
+
+    @Override
+    public void moves(long count) {
+        moves += count;
+    }
+
+    @Override
+    public void allocated(long bytes) {
+        allocatedBytes += bytes;
+    }
+
+    @Override
+    public void partition(int depth, int left, int right) {
+        partitions++;
+        if (depth > maxDepth) maxDepth = depth;
+        int total = left + right;
+        if (total > 0) {
+            double imbalance = (double) Math.max(left, right) / total;
+            if (imbalance > worstImbalance) worstImbalance = imbalance;
+        }
+    }
+
+    /**
+     * Clears every counter and timer.
+     */
+    public void reset() {
+        comparisons = swaps = moves = allocatedBytes = partitions = 0;
+        maxDepth = 0;
+        worstImbalance = 0;
+        Arrays.fill(phaseNanos, 0);
+    }
+
+    public long comparisons() {
+        return comparisons;
+    }
+
+    public long swaps() {
+        return swaps;
+    }
+
+    public long moves() {
+        return moves;
+    }
+
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long partitions() {
+        return partitions;
+    }
+
+    /**
+     * @return the deepest recursion level at which a partition was reported
+     */
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return the larger side over the total size for the most lopsided partition:
+     *         0.5 is a perfect split, values near 1.0 mean a degenerate pivot
+     */
+    public double worstImbalance() {
+        return worstImbalance;
+    }
+
+    /**
+     * @return nanoseconds spent in the phase since the last reset
+     */
+    public long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Passes every metric to sink under a dotted name. Phases that never ran are skipped.
+     *
+     * @param sink receives (name, value) pairs, e.g. registry::gauge
+     */
+    public void forEach(BiConsumer<String, Number> sink) {
+        sink.accept("sort.comparisons", comparisons);
+        sink.accept("sort.swaps", swaps);
+        sink.accept("sort.moves", moves);
+        sink.accept("sort.allocated.bytes", allocatedBytes);
+        sink.accept("sort.partitions", partitions);
+        sink.accept("sort.depth.max", maxDepth);
+        sink.accept("sort.partition.imbalance.worst", worstImbalance);
+        for (Phase phase : PHASES) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos != 0) sink.accept("sort.phase." + phase.name().toLowerCase() + ".nanos", nanos);
+        }
+    }
+
+    /**
+     * Emits the current values as a JFR event, if recording of sorting.Sort is enabled.
+     *
+     * @param engine name of the engine that ran, e.g. "radix"
+     * @param length number of elements sorted
+     */
+    public void commitEvent(String engine, int length) {
+        SortEvent event = new SortEvent();
+        if (!event.isEnabled()) return;
+        event.engine = engine;
+        event.length = length;
+        event.comparisons = comparisons;
+        event.swaps = swaps;
+        event.moves = moves;
+        event.allocated = allocatedBytes;
+        event.maxDepth = maxDepth;
+        event.worstImbalance = worstImbalance;
+        event.histogram = phaseNanos(Phase.HISTOGRAM);
+        event.prefixSum = phaseNanos(Phase.PREFIX_SUM);
+        event.scatter = phaseNanos(Phase.SCATTER);
+        event.heapBuild = phaseNanos(Phase.HEAP_BUILD);
+        event.heapExtract = phaseNanos(Phase.HEAP_EXTRACT);
+        event.split = phaseNanos(Phase.SPLIT);
+        event.merge = phaseNanos(Phase.MERGE);
+        event.partition = phaseNanos(Phase.PARTITION);
+        event.commit();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SortMetrics{");
+        forEach((name, value) -> sb.append(name.substring("sort.".length())).append('=').append(value).append(", "));
+        sb.setLength(sb.length() - 2);
+        return sb.append('}').toString();
+    }
+
+    /**
+     * JFR event carrying one SortMetrics snapshot.
+     */
+    @Name("sorting.Sort")
+    @Label("Sort")
+    @Category("Sorting")
+    static class SortEvent extends Event {
+        @Label("Engine")
+        String engine;
+        @Label("Length")
+        int length;
+        @Label("Comparisons")
+        long comparisons;
+        @Label("Swaps")
+        long swaps;
+        @Label("Moves")
+        long moves;
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+        @Label("Max Depth")
+        int maxDepth;
+        @Label("Worst Imbalance")
+        double worstImbalance;
+        @Label("Histogram")
+        @Timespan
+        long histogram;
+        @Label("Prefix Sum")
+        @Timespan
+        long prefixSum;
+        @Label("Scatter")
+        @Timespan
+        long scatter;
+        @Label("Heap Build")
+        @Timespan
+        long heapBuild;
+        @Label("Heap Extract")
+        @Timespan
+        long heapExtract;
+        @Label("Split")
+        @Timespan
+        long split;
+        @Label("Merge")
+        @Timespan
+        long merge;
+        @Label("Partition")
+        @Timespan
+        long partition;
+    }
+
+    // Sample usage
+    public static void main(String[] args) {
+        int[] source = new java.util.Random(42).ints(1_000_000).toArray();
+        SortMetrics metrics = new SortMetrics();
+
+        int[] arr = source.clone();
+        RadixSort.radixSortSigned(arr, RadixSort.DEFAULT_BITS, new SortContext(), metrics);
+        System.out.println("Radix:     " + metrics);
+
+        metrics.reset();
+        arr = source.clone();
+        QuickSort.quickSortIntro(arr, 0, arr.length - 1, metrics);
+        System.out.println("Introsort: " + metrics);
+
+        metrics.reset();
+        arr = source.clone();
+        HeapSort.heapSortBottomUp(arr, 0, arr.length - 1, 4, metrics);
+        System.out.println("Heap:      " + metrics);
+
+        metrics.reset();
+        arr = source.clone();
+        MergeSort.bufferedMergeSort(arr, new SortContext(), metrics);
+        System.out.println("Merge:     " + metrics);
+    }
+}
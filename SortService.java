@@ -0,0 +1,575 @@
+/**
+ * SortService.java
+ *
+ * Runs many independent sort jobs concurrently behind a bounded queue, for callers
+ * that would otherwise each sort on their own request thread.
+ *
+ * 1. submit() enqueues a job and returns a CompletableFuture that completes with
+ *    the (sorted in place) array. The queue is bounded: submit() blocks while it is
+ *    full, trySubmit() fails the job at once, so producers feel backpressure
+ * 2. Jobs are ordered by priority, then by earliest deadline, then by arrival
+ * 3. A dispatcher thread hands work to the workers, never more than maxInFlight
+ *    units at a time. Small jobs are grouped into batches of up to batchElements
+ *    elements that one worker sorts back to back, keeping that worker's caches and
+ *    the sorting code warm; a job of at least largeJobThreshold elements runs
+ *    alone and Sorter sends it to the fork/join parallel engines
+ * 4. A job can be cancelled through its future while it is queued. A job that has
+ *    not started by its deadline is dropped and its future fails with a
+ *    TimeoutException; a started job always runs to completion, so the caller's
+ *    array is never written to after its future completes
+ * 5. Queue depth, job counts and the distributions of queue wait and end-to-end
+ *    latency (p50 / p99 / p99.9) are exported like SortMetrics, via forEach
+ *
+ * Raising batchElements and maxInFlight favours throughput; lowering them, plus
+ * priorities and deadlines, keeps the tail latency of urgent jobs down.
+ *
+ * Workers are platform threads from an owned pool by default. Any ExecutorService
+ * can be supplied instead (e.g. a virtual-thread-per-task executor on JDK 21+);
+ * maxInFlight bounds the concurrency either way.
+ *
+ * Sample usage:
+ *   try (SortService service = new SortService(new SortService.Options())) {
+ *       CompletableFuture<int[]> sorted = service.submit(arr, Priority.HIGH, Duration.ofMillis(50));
+ *   }
+ */
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+public class SortService implements AutoCloseable {
+
+    /**
+     * Scheduling class of a job; all queued HIGH jobs start before any NORMAL one.
+     */
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    /**
+     * Tuning knobs for a service. Setters return this so calls can be chained.
+     */
+    public static class Options {
+        int queueCapacity = 1024;
+        int maxInFlight = Runtime.getRuntime().availableProcessors();
+        int batchElements = 1 << 16;
+        int largeJobThreshold = Sorter.PARALLEL_THRESHOLD;
+        ExecutorService executor;
+
+        /** Jobs that may wait in the queue; submit() blocks beyond that. */
+        public Options queueCapacity(int jobs) {
+            if (jobs < 1) throw new IllegalArgumentException("Queue capacity must be positive: " + jobs);
+            this.queueCapacity = jobs;
+            return this;
+        }
+
+        /** Batches or large jobs running at once (and threads in the owned pool). */
+        public Options maxInFlight(int units) {
+            if (units < 1) throw new IllegalArgumentException("In-flight limit must be positive: " + units);
+            this.maxInFlight = units;
+            return this;
+        }
+
+        /** Total elements of the small jobs grouped into one batch. */
+        public Options batchElements(int elements) {
+            if (elements < 1) throw new IllegalArgumentException("Batch size must be positive: " + elements);
+            this.batchElements = elements;
+            return this;
+        }
+
+        /** Jobs at least this long run alone on the parallel engines. */
+        public Options largeJobThreshold(int elements) {
+            if (elements < 1) throw new IllegalArgumentException("Large-job threshold must be positive: " + elements);
+            this.largeJobThreshold = elements;
+            return this;
+        }
+
+        /** Runs the batches instead of an owned pool; not shut down by close(). */
+        public Options executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+    }
+
+    private final Options options;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Semaphore inFlight;
+    private final Thread dispatcher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final PriorityQueue<Job> queue = new PriorityQueue<>();
+    private long sequence;
+    private boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder largeJobs = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Starts a service and its dispatcher thread.
+     *
+     * @param options queue, batching and concurrency limits
+     */
+    public SortService(Options options) {
+        this.options = options;
+        this.ownsExecutor = options.executor == null;
+        this.executor = ownsExecutor ? Executors.newFixedThreadPool(options.maxInFlight, r -> {
+            Thread thread = new Thread(r, "sort-service-worker");
+            thread.setDaemon(true);
+            return thread;
+        }) : options.executor;
+        this.inFlight = new Semaphore(options.maxInFlight);
+        this.dispatcher = new Thread(this::dispatch, "sort-service-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Queues arr with NORMAL priority and no deadline, blocking while the queue is full.
+     *
+     * @param arr the array to sort in place
+     * @return completes with arr once it is sorted
+     */
+    public CompletableFuture<int[]> submit(int[] arr) throws InterruptedException {
+        return submit(arr, Priority.NORMAL, null);
+    }
+
+    /**
+     * Queues arr, blocking while the queue is full.
+     *
+     * @param arr the array to sort in place; the caller must not touch it until the future completes
+     * @param priority scheduling class
+     * @param deadline time allowed from now for the job to start, or null for none;
+     *                 a job still waiting then is dropped and its future fails with
+     *                 TimeoutException, a job already started runs to completion
+     * @return completes with arr once it is sorted; cancel() succeeds only while
+     *         the job is still queued
+     * @throws RejectedExecutionException if the service is closed
+     */
+    public CompletableFuture<int[]> submit(int[] arr, Priority priority, Duration deadline)
+            throws InterruptedException {
+        long now = System.nanoTime();
+        Job job;
+        lock.lockInterruptibly();
+        try {
+            while (!closed && queue.size() >= options.queueCapacity) {
+                notFull.await();
+            }
+            job = add(arr, priority, deadline, now);
+        } finally {
+            lock.unlock();
+        }
+        scheduleExpiry(job, deadline);
+        return job.future;
+    }
+
+    /**
+     * Same as submit(arr, priority, deadline), except that a full queue fails the
+     * returned future with RejectedExecutionException instead of blocking.
+     */
+    public CompletableFuture<int[]> trySubmit(int[] arr, Priority priority, Duration deadline) {
+        long now = System.nanoTime();
+        Job job;
+        lock.lock();
+        try {
+            if (!closed && queue.size() >= options.queueCapacity) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Sort queue is full (" + options.queueCapacity + " jobs)"));
+            }
+            job = add(arr, priority, deadline, now);
+        } finally {
+            lock.unlock();
+        }
+        scheduleExpiry(job, deadline);
+        return job.future;
+    }
+
+    // Called with the lock held
+    private Job add(int[] arr, Priority priority, Duration deadline, long now) {
+        if (closed) throw new RejectedExecutionException("Sort service is closed");
+        long due = deadline == null ? 0 : now + deadline.toNanos();
+        Job job = new Job(arr, priority, deadline != null, due, sequence++, now);
+        queue.add(job);
+        submitted.increment();
+        notEmpty.signal();
+        return job;
+    }
+
+    /**
+     * At the deadline, fails the job if it is still queued. A job that has been
+     * taken by a worker is left alone, so its array is never handed back while a
+     * sort may still be writing to it.
+     */
+    private void scheduleExpiry(Job job, Duration deadline) {
+        if (deadline == null) return;
+        CompletableFuture.delayedExecutor(deadline.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            if (remove(job)) expire(job);
+        });
+    }
+
+    /**
+     * Removes job from the queue and frees its slot.
+     *
+     * @return false if the job was no longer queued
+     */
+    private boolean remove(Job job) {
+        lock.lock();
+        try {
+            if (!queue.remove(job)) return false;
+            notFull.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void expire(Job job) {
+        if (job.future.completeExceptionally(new TimeoutException("Sort job did not start before its deadline"))) {
+            expired.increment();
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // Dispatch and execution
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Dispatcher loop: waits for a free in-flight slot, then for work, and hands the
+     * next batch (or large job) to the executor. Exits once closed and drained.
+     */
+    private void dispatch() {
+        try {
+            while (true) {
+                inFlight.acquire();
+                List<Job> batch = takeBatch();
+                if (batch == null) {
+                    inFlight.release();
+                    return;
+                }
+                try {
+                    executor.execute(() -> run(batch));
+                } catch (RejectedExecutionException e) {
+                    for (Job job : batch) job.future.completeExceptionally(e);
+                    failed.add(batch.size());
+                    inFlight.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Removes the next unit of work from the queue: one large job, or as many small
+     * jobs (in queue order) as fit in batchElements, and at least one.
+     * Returns null when the service is closed and the queue is empty.
+     */
+    private List<Job> takeBatch() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (queue.isEmpty()) {
+                if (closed) return null;
+                notEmpty.await();
+            }
+            List<Job> batch = new ArrayList<>();
+            Job first = queue.poll();
+            batch.add(first);
+            if (first.arr.length >= options.largeJobThreshold) {
+                largeJobs.increment();
+            } else {
+                long elements = first.arr.length;
+                Job next;
+                while ((next = queue.peek()) != null && next.arr.length < options.largeJobThreshold
+                        && elements + next.arr.length <= options.batchElements) {
+                    batch.add(queue.poll());
+                    elements += next.arr.length;
+                }
+                batches.increment();
+            }
+            notFull.signalAll();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sorts the jobs of one batch in order on the current thread.
+     */
+    private void run(List<Job> batch) {
+        try {
+            for (Job job : batch) {
+                // Completed by the caller, or out of time while waiting in the batch
+                if (job.future.isDone()) continue;
+                long start = System.nanoTime();
+                if (job.hasDeadline && start - job.deadline > 0) {
+                    expire(job);
+                    continue;
+                }
+
+                queueWait.record(start - job.submittedAt);
+                try {
+                    Sorter.sort(job.arr);
+                } catch (RuntimeException | Error e) {
+                    failed.increment();
+                    job.future.completeExceptionally(e);
+                    continue;
+                }
+                if (job.future.complete(job.arr)) {
+                    completed.increment();
+                    latency.record(System.nanoTime() - job.submittedAt);
+                }
+            }
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Stops accepting jobs, lets the queued ones run, and waits for them to finish.
+     * The wait is not cut short by an interrupt; the interrupt status is restored
+     * on return instead.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                dispatcher.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        // Every unit is finished once all in-flight slots are back
+        inFlight.acquireUninterruptibly(options.maxInFlight);
+        inFlight.release(options.maxInFlight);
+        if (ownsExecutor) executor.shutdown();
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // --------------------------------------------------------------------------------
+    // Metrics
+    // --------------------------------------------------------------------------------
+
+    /**
+     * @return jobs currently waiting in the queue
+     */
+    public int queueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return nanoseconds from submit to completion below which a fraction q of
+     *         the completed jobs finished (to within 25%)
+     */
+    public long latencyPercentile(double q) {
+        return latency.percentile(q);
+    }
+
+    /**
+     * @return nanoseconds from submit to start below which a fraction q of the
+     *         started jobs waited (to within 25%)
+     */
+    public long queueWaitPercentile(double q) {
+        return queueWait.percentile(q);
+    }
+
+    /**
+     * Passes every metric to sink under a dotted name, like SortMetrics.forEach.
+     *
+     * @param sink receives (name, value) pairs, e.g. registry::gauge
+     */
+    public void forEach(BiConsumer<String, Number> sink) {
+        sink.accept("sort.service.queue.depth", queueDepth());
+        sink.accept("sort.service.jobs.submitted", submitted.sum());
+        sink.accept("sort.service.jobs.completed", completed.sum());
+        sink.accept("sort.service.jobs.failed", failed.sum());
+        sink.accept("sort.service.jobs.rejected", rejected.sum());
+        sink.accept("sort.service.jobs.cancelled", cancelled.sum());
+        sink.accept("sort.service.jobs.expired", expired.sum());
+        sink.accept("sort.service.batches", batches.sum());
+        sink.accept("sort.service.jobs.large", largeJobs.sum());
+        sink.accept("sort.service.queue.wait.p50.nanos", queueWait.percentile(0.5));
+        sink.accept("sort.service.queue.wait.p99.nanos", queueWait.percentile(0.99));
+        sink.accept("sort.service.latency.p50.nanos", latency.percentile(0.5));
+        sink.accept("sort.service.latency.p99.nanos", latency.percentile(0.99));
+        sink.accept("sort.service.latency.p999.nanos", latency.percentile(0.999));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SortService{");
+        forEach((name, value) -> sb.append(name.substring("sort.service.".length())).append('=').append(value).append(", "));
+        sb.setLength(sb.length() - 2);
+        return sb.append('}').toString();
+    }
+
+    /**
+     * A queued sort. Ordered by priority, then deadline (jobs without one last),
+     * then arrival.
+     */
+    final class Job implements Comparable<Job> {
+        final int[] arr;
+        final Priority priority;
+        final boolean hasDeadline;
+        final long deadline;
+        final long sequence;
+        final long submittedAt;
+        final JobFuture future = new JobFuture(this);
+
+        Job(int[] arr, Priority priority, boolean hasDeadline, long deadline, long sequence, long submittedAt) {
+            this.arr = arr;
+            this.priority = priority;
+            this.hasDeadline = hasDeadline;
+            this.deadline = deadline;
+            this.sequence = sequence;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            if (priority != other.priority) return priority.compareTo(other.priority);
+            if (hasDeadline != other.hasDeadline) return hasDeadline ? -1 : 1;
+            // nanoTime values are compared by difference, which survives wrap-around
+            if (hasDeadline && deadline != other.deadline) return deadline - other.deadline < 0 ? -1 : 1;
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Future of a job. Cancelling takes the job out of the queue; once a worker
+     * has taken it, cancel() returns false and the sort completes normally.
+     */
+    final class JobFuture extends CompletableFuture<int[]> {
+        private final Job job;
+
+        JobFuture(Job job) {
+            this.job = job;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!remove(job)) return false;
+            cancelled.increment();
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        // Dependent stages are plain futures
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Lock-free histogram of nanosecond durations with four buckets per power of
+     * two, so a percentile is reported to within 25%.
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BITS = 2;
+        private final AtomicLongArray counts = new AtomicLongArray(64 << SUB_BITS);
+
+        void record(long nanos) {
+            counts.incrementAndGet(index(Math.max(0, nanos)));
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the q-quantile, 0 if empty.
+         */
+        long percentile(double q) {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) total += counts.get(i);
+            if (total == 0) return 0;
+            long target = Math.max(1, (long) Math.ceil(q * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= target) return upperBound(i);
+            }
+            return upperBound(counts.length() - 1);
+        }
+
+        /**
+         * Bucket of v: values below 4 are exact, above that the exponent selects a
+         * group of four buckets and the two bits after the leading one select within it.
+         */
+        static int index(long v) {
+            int exp = 63 - Long.numberOfLeadingZeros(v | 1);
+            if (exp < SUB_BITS) return (int) v;
+            return (exp - SUB_BITS + 1) << SUB_BITS | (int) ((v >>> (exp - SUB_BITS)) & ((1 << SUB_BITS) - 1));
+        }
+
+        static long upperBound(int index) {
+            if (index < 1 << SUB_BITS) return index;
+            int exp = (index >> SUB_BITS) + SUB_BITS - 1;
+            long lower = (long) ((1 << SUB_BITS) | (index & ((1 << SUB_BITS) - 1))) << (exp - SUB_BITS);
+            return lower + (1L << (exp - SUB_BITS)) - 1;
+        }
+    }
+
+    // Sample usage
+    public static void main(String[] args) throws Exception {
+        java.util.Random random = new java.util.Random(42);
+        List<CompletableFuture<int[]>> futures = new ArrayList<>();
+
+        try (SortService service = new SortService(new Options().queueCapacity(256))) {
+            for (int i = 0; i < 2000; i++) {
+                int[] arr = random.ints(100 + random.nextInt(5000)).toArray();
+                Priority priority = i % 10 == 0 ? Priority.HIGH : Priority.NORMAL;
+                futures.add(service.submit(arr, priority, Duration.ofSeconds(5)));
+            }
+            futures.add(service.submit(random.ints(1 << 20).toArray()));
+
+            int sorted = 0;
+            for (CompletableFuture<int[]> future : futures) {
+                int[] arr = future.get();
+                boolean ok = true;
+                for (int j = 1; j < arr.length && ok; j++) ok = arr[j - 1] <= arr[j];
+                if (ok) sorted++;
+            }
+            System.out.println(sorted + " of " + futures.size() + " jobs sorted");
+            System.out.println(service);
+        }
+    }
+}
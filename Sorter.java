@@ -0,0 +1,250 @@
+/**
+ * Sorter.java
+ *
+ * Single entry point that looks at the input and dispatches to the engine that
+ * fits it best, instead of the caller picking one of the *Sort classes by hand.
+ *
+ * The pre-scan is one O(n) pass (min/max and the number of descents, i.e. places
+ * where arr[i] > arr[i + 1]) plus a small fixed-size sample for the duplicate ratio.
+ * Decision records the measured inputs together with the choice, so callers can log
+ * it and compare the choices against the JMH numbers.
+ *
+ * Dispatch order:
+ * 1. Already sorted / reverse sorted -> nothing / in-place reversal
+ * 2. Tiny arrays                     -> insertion sort
+ * 3. Few long runs                   -> run-merging merge sort (MergeSort.timSort)
+ * 4. Narrow value range              -> counting sort
+ * 5. Large, mostly distinct keys     -> LSD radix sort
+ * 6. Everything else                 -> Introsort (three-way, handles duplicates)
+ * Parallel variants are used above PARALLEL_THRESHOLD elements (sample sort in place
+ * of Introsort).
+ */
+
+import java.util.concurrent.ForkJoinPool;
+
+public class Sorter {
+
+    // Arrays at or below this size are insertion sorted
+    static final int INSERTION_MAX = 32;
+
+    // Average run length at or above which merging existing runs pays off
+    static final int MIN_AVERAGE_RUN = 64;
+
+    // Arrays at or above this size use radix sort when keys are mostly distinct
+    static final int RADIX_MIN = 1 << 12;
+
+    // Sampled distinct ratio below which Introsort's equal-key grouping wins
+    static final double LOW_DISTINCT_RATIO = 1.0 / 16;
+
+    // Number of evenly spaced elements sampled for the duplicate ratio
+    static final int SAMPLE_SIZE = 256;
+
+    // Arrays at or above this size use the parallel engines
+    static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    /**
+     * Engines the front end can dispatch to.
+     */
+    public enum Algorithm {
+        ALREADY_SORTED,
+        REVERSE,
+        INSERTION,
+        RUN_MERGE,
+        COUNTING,
+        RADIX,
+        INTROSORT
+    }
+
+    /**
+     * The measured properties of an input and the engine chosen for it.
+     */
+    public static class Decision {
+        public final int length;
+        public final int min;
+        public final int max;
+        public final int runs;
+        public final double distinctRatio;
+        public final Algorithm algorithm;
+        public final boolean parallel;
+
+        Decision(int length, int min, int max, int runs, double distinctRatio, Algorithm algorithm, boolean parallel) {
+            this.length = length;
+            this.min = min;
+            this.max = max;
+            this.runs = runs;
+            this.distinctRatio = distinctRatio;
+            this.algorithm = algorithm;
+            this.parallel = parallel;
+        }
+
+        /**
+         * @return max - min + 1, the number of slots a count table would need
+         */
+        public long range() {
+            return length == 0 ? 0 : (long) max - min + 1;
+        }
+
+        @Override
+        public String toString() {
+            return "Decision{algorithm=" + algorithm + ", parallel=" + parallel + ", length=" + length
+                    + ", min=" + min + ", max=" + max + ", runs=" + runs
+                    + ", distinctRatio=" + String.format("%.3f", distinctRatio) + "}";
+        }
+    }
+
+    /**
+     * Sorts arr with the engine chosen by analyze and returns that decision.
+     *
+     * @param arr the array to sort
+     * @return what was measured and which engine ran
+     */
+    public static Decision sort(int[] arr) {
+        Decision decision = analyze(arr);
+        sort(arr, decision);
+        return decision;
+    }
+
+    /**
+     * Sorts arr with the engine named by a decision (normally one from analyze(arr)).
+     *
+     * @param arr the array to sort
+     * @param decision the engine and parallelism to use
+     */
+    public static void sort(int[] arr, Decision decision) {
+        int n = arr.length;
+        switch (decision.algorithm) {
+            case ALREADY_SORTED:
+                break;
+            case REVERSE:
+                for (int i = 0, j = n - 1; i < j; i++, j--) QuickSort.swap(arr, i, j);
+                break;
+            case INSERTION:
+                QuickSort.insertionSort(arr, 0, n - 1);
+                break;
+            case RUN_MERGE:
+                if (decision.parallel) MergeSort.parallelMergeSort(arr);
+                else MergeSort.timSort(arr);
+                break;
+            case COUNTING:
+                if (decision.parallel) CountingSort.parallelCountSort(arr);
+                else CountingSort.countSortUnstable(arr);
+                break;
+            case RADIX:
+                if (decision.parallel) RadixSort.parallelRadixSortSigned(arr);
+                else RadixSort.radixSortSigned(arr);
+                break;
+            case INTROSORT:
+                if (decision.parallel) SampleSort.parallelSampleSort(arr);
+                else QuickSort.quickSortIntro(arr, 0, n - 1);
+                break;
+            default:
+                throw new IllegalStateException("Unhandled algorithm: " + decision.algorithm);
+        }
+    }
+
+    /**
+     * Scans arr once (plus a small sample) and decides how to sort it. arr is not modified.
+     *
+     * @param arr the array to inspect
+     * @return the measured properties and the chosen engine
+     */
+    public static Decision analyze(int[] arr) {
+        int n = arr.length;
+        if (n < 2) {
+            int v = n == 0 ? 0 : arr[0];
+            return new Decision(n, v, v, n, 1.0, Algorithm.ALREADY_SORTED, false);
+        }
+
+        // Step 1: One pass for min/max, descents (run breaks) and ascents
+        int min = arr[0], max = arr[0];
+        int descents = 0, ascents = 0;
+        for (int i = 1; i < n; i++) {
+            int prev = arr[i - 1], cur = arr[i];
+            if (cur < min) min = cur;
+            else if (cur > max) max = cur;
+            if (cur < prev) descents++;
+            else if (cur > prev) ascents++;
+        }
+        int runs = descents + 1;
+
+        // Step 2: Duplicate ratio from an evenly spaced sample
+        double distinctRatio = sampleDistinctRatio(arr);
+
+        boolean parallel = n >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+        Algorithm algorithm;
+        if (descents == 0) {
+            algorithm = Algorithm.ALREADY_SORTED;
+        } else if (ascents == 0) {
+            algorithm = Algorithm.REVERSE;
+        } else if (n <= INSERTION_MAX) {
+            algorithm = Algorithm.INSERTION;
+        } else if (n / runs >= MIN_AVERAGE_RUN) {
+            algorithm = Algorithm.RUN_MERGE;
+        } else if (CountingSort.isCountingWorthwhile((long) max - min + 1, n)) {
+            algorithm = Algorithm.COUNTING;
+        } else if (n >= RADIX_MIN && distinctRatio >= LOW_DISTINCT_RATIO) {
+            algorithm = Algorithm.RADIX;
+        } else {
+            algorithm = Algorithm.INTROSORT;
+        }
+
+        boolean hasParallelEngine = algorithm == Algorithm.RUN_MERGE || algorithm == Algorithm.COUNTING
+                || algorithm == Algorithm.RADIX || algorithm == Algorithm.INTROSORT;
+        return new Decision(n, min, max, runs, distinctRatio, algorithm, parallel && hasParallelEngine);
+    }
+
+    /**
+     * Returns distinct values / sample size over up to SAMPLE_SIZE evenly spaced elements.
+     */
+    static double sampleDistinctRatio(int[] arr) {
+        int n = arr.length;
+        int size = Math.min(n, SAMPLE_SIZE);
+        int[] sample = new int[size];
+        long step = ((long) n << 16) / size;
+        for (int i = 0; i < size; i++) {
+            sample[i] = arr[(int) ((i * step) >>> 16)];
+        }
+        QuickSort.quickSortIntro(sample, 0, size - 1);
+
+        int distinct = 1;
+        for (int i = 1; i < size; i++) {
+            if (sample[i] != sample[i - 1]) distinct++;
+        }
+        return (double) distinct / size;
+    }
+
+    /**
+     * Utility method to print an array.
+     *
+     * @param arr the array to print
+     */
+    public static void printArray(int[] arr) {
+        for (int val : arr) {
+            System.out.print(val + " ");
+        }
+        System.out.println();
+    }
+
+    // Sample usage
+    public static void main(String[] args) {
+        int[] arr = {38, 27, 43, 3, 9, 82, 10};
+
+        System.out.println("Original array:");
+        printArray(arr);
+
+        Decision decision = sort(arr);
+
+        System.out.println("Sorted array using " + decision);
+        printArray(arr);
+
+        java.util.Random random = new java.util.Random(42);
+        int[][] inputs = {
+            random.ints(100_000, 0, 1000).toArray(),
+            random.ints(100_000).toArray(),
+            random.ints(100_000, 0, 8).map(v -> v * 1_000_000).toArray(),
+        };
+        for (int[] input : inputs) {
+            System.out.println(sort(input));
+        }
+    }
+}
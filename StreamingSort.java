@@ -0,0 +1,381 @@
+/**
+ * StreamingSort.java
+ *
+ * Sorts ints while they are still arriving, so that reading and sorting overlap:
+ * 1. Values are pushed one at a time, in arrays, or read from a channel or stream
+ *    of fixed-width binary ints, into a chunk buffer of chunkSize values
+ * 2. Every full chunk is handed to a background executor and sorted there with
+ *    Sorter (which picks the engine), while the producer fills the next chunk
+ * 3. When input ends, only the last partial chunk is left to sort; the result is a
+ *    lazy k-way merge of the sorted chunks through a binary min-heap, exposed as a
+ *    PrimitiveIterator.OfInt or an IntStream. No merged copy is ever built: each
+ *    next value costs O(log k) heap work, where k is the number of chunks
+ *
+ * Time Complexity: O(n log c) for the chunk sorts (c = chunk size, done in the
+ *                  background) plus O(n log k) for the merge as it is consumed
+ * Space Complexity: the input itself (every value is kept in its chunk) plus one
+ *                   chunk being filled
+ * Stable: Not applicable (bare keys)
+ *
+ * Sample usage:
+ *   PrimitiveIterator.OfInt sorted = StreamingSort.sortInts(channel, ByteOrder.BIG_ENDIAN);
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+public class StreamingSort {
+
+    /**
+     * Reads every int from a blocking channel and returns them in ascending order.
+     * Chunks are sorted on background threads while the channel is being read.
+     *
+     * @param channel the source of binary ints; read to the end but not closed
+     * @param order byte order of the ints in the channel
+     * @return the values in ascending order, merged lazily
+     */
+    public static PrimitiveIterator.OfInt sortInts(ReadableByteChannel channel, ByteOrder order) throws IOException {
+        IntPipeline pipeline = new IntPipeline();
+        try {
+            pipeline.readFrom(channel, order);
+            pipeline.finish();
+            return pipeline.iterator();
+        } finally {
+            pipeline.close();
+        }
+    }
+
+    /**
+     * Collects pushed or read ints into chunks, sorts each full chunk in the
+     * background and merges them lazily once input has ended. The input methods are
+     * thread-safe; finish() ends the input and iterator()/stream() may then be
+     * called any number of times. Close it to abandon a pipeline early.
+     */
+    public static class IntPipeline implements AutoCloseable {
+
+        // Default number of values per chunk
+        static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+        // Bytes requested from a channel per read
+        static final int READ_BUFFER_BYTES = 1 << 16;
+
+        private final int chunkSize;
+        private final ExecutorService executor;
+        private final boolean ownsExecutor;
+        private final List<Future<int[]>> chunks = new ArrayList<>();
+        private int[] current;
+        private int count;
+        private long size;
+        private boolean finished;
+
+        /**
+         * Creates a pipeline with the default chunk size that sorts chunks on its own
+         * daemon threads, one per available processor.
+         */
+        public IntPipeline() {
+            this(DEFAULT_CHUNK_SIZE, null);
+        }
+
+        /**
+         * @param chunkSize values per chunk; each full chunk is sorted as one task
+         * @param executor runs the chunk sorts, or null for a pool owned by this
+         *                 pipeline (shut down by finish() or close())
+         */
+        public IntPipeline(int chunkSize, ExecutorService executor) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            this.ownsExecutor = executor == null;
+            this.executor = executor != null ? executor
+                    : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                        Thread thread = new Thread(r, "streaming-sort-worker");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.current = new int[chunkSize];
+        }
+
+        /**
+         * Adds one value.
+         *
+         * @param value the value to add
+         */
+        public synchronized void add(int value) {
+            checkOpen();
+            current[count++] = value;
+            size++;
+            if (count == chunkSize) submitChunk();
+        }
+
+        /**
+         * Adds arr[from..to).
+         *
+         * @param arr the source array
+         * @param from first index (inclusive)
+         * @param to last index (exclusive)
+         */
+        public synchronized void addAll(int[] arr, int from, int to) {
+            checkOpen();
+            while (from < to) {
+                int len = Math.min(to - from, chunkSize - count);
+                System.arraycopy(arr, from, current, count, len);
+                count += len;
+                size += len;
+                from += len;
+                if (count == chunkSize) submitChunk();
+            }
+        }
+
+        /**
+         * Adds the remaining values of src.
+         */
+        synchronized void addAll(IntBuffer src) {
+            checkOpen();
+            while (src.hasRemaining()) {
+                int len = Math.min(src.remaining(), chunkSize - count);
+                src.get(current, count, len);
+                count += len;
+                size += len;
+                if (count == chunkSize) submitChunk();
+            }
+        }
+
+        /**
+         * Reads binary ints from a blocking channel until it ends; the channel is not
+         * closed. Full chunks start sorting while the rest is still being read.
+         *
+         * @param channel the source of binary ints
+         * @param order byte order of the ints in the channel
+         * @throws IOException if reading fails or the input ends inside an int
+         */
+        public void readFrom(ReadableByteChannel channel, ByteOrder order) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES).order(order);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                int records = buffer.remaining() / Integer.BYTES;
+                IntBuffer ints = buffer.asIntBuffer();
+                ints.limit(records);
+                addAll(ints);
+
+                // Keep a partial int for the next read
+                buffer.position(records * Integer.BYTES);
+                buffer.compact();
+            }
+            if (buffer.position() != 0) {
+                throw new IOException("Input ended inside an int (" + buffer.position() + " trailing bytes)");
+            }
+        }
+
+        /**
+         * Reads binary ints from a stream until it ends; the stream is not closed.
+         *
+         * @param in the source of binary ints
+         * @param order byte order of the ints in the stream
+         * @throws IOException if reading fails or the input ends inside an int
+         */
+        public void readFrom(InputStream in, ByteOrder order) throws IOException {
+            readFrom(Channels.newChannel(in), order);
+        }
+
+        /**
+         * Ends the input: the last partial chunk is submitted and an owned pool is
+         * shut down once its queued sorts are done. Further input is rejected.
+         */
+        public synchronized void finish() {
+            if (finished) return;
+            if (count > 0) submitChunk();
+            current = null;
+            finished = true;
+            if (ownsExecutor) executor.shutdown();
+        }
+
+        /**
+         * Waits for the chunk sorts and returns a lazy merge of all values in
+         * ascending order.
+         *
+         * @throws IllegalStateException if finish() has not been called or a chunk sort failed
+         */
+        public PrimitiveIterator.OfInt iterator() {
+            List<Future<int[]>> pending;
+            synchronized (this) {
+                if (!finished) throw new IllegalStateException("finish() has not been called");
+                pending = new ArrayList<>(chunks);
+            }
+            int[][] runs = new int[pending.size()][];
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] = await(pending.get(i));
+            }
+            return new MergeIterator(runs);
+        }
+
+        /**
+         * Same as iterator(), as an ordered, sorted and sized IntStream.
+         */
+        public IntStream stream() {
+            PrimitiveIterator.OfInt iterator = iterator();
+            int characteristics = Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+            return StreamSupport.intStream(Spliterators.spliterator(iterator, size(), characteristics), false);
+        }
+
+        /**
+         * @return the number of values added so far
+         */
+        public synchronized long size() {
+            return size;
+        }
+
+        /**
+         * @return the number of chunks submitted for sorting so far
+         */
+        public synchronized int chunkCount() {
+            return chunks.size();
+        }
+
+        /**
+         * Stops an owned pool, cancelling chunk sorts that have not started.
+         * Sorted chunks already handed out through iterator() stay valid.
+         */
+        @Override
+        public synchronized void close() {
+            finished = true;
+            current = null;
+            if (ownsExecutor) executor.shutdownNow();
+        }
+
+        private void submitChunk() {
+            int[] chunk = count == chunkSize ? current : Arrays.copyOf(current, count);
+            chunks.add(executor.submit(() -> {
+                Sorter.sort(chunk);
+                return chunk;
+            }));
+            current = new int[chunkSize];
+            count = 0;
+        }
+
+        private void checkOpen() {
+            if (finished) throw new IllegalStateException("Input has already ended");
+        }
+
+        private static int[] await(Future<int[]> chunk) {
+            try {
+                return chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a chunk sort", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Chunk sort failed", e.getCause());
+            }
+        }
+    }
+
+    // --------------------------------------------------------------------------------
+    // Lazy k-way merge with a binary heap
+    // --------------------------------------------------------------------------------
+
+    /**
+     * Merges sorted runs on demand. The heap holds one entry per unfinished run,
+     * ordered by the run's current value; heads[r] caches runs[r][pos[r]] so a
+     * comparison reads a single array.
+     */
+    static class MergeIterator implements PrimitiveIterator.OfInt {
+        private final int[][] runs;
+        private final int[] pos;
+        private final int[] heads;
+        private final int[] heap;
+        private int heapSize;
+
+        MergeIterator(int[][] runs) {
+            this.runs = runs;
+            this.pos = new int[runs.length];
+            this.heads = new int[runs.length];
+            this.heap = new int[runs.length];
+            for (int r = 0; r < runs.length; r++) {
+                if (runs[r].length == 0) continue;
+                heads[r] = runs[r][0];
+                heap[heapSize++] = r;
+            }
+            for (int i = heapSize / 2 - 1; i >= 0; i--) siftDown(i);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return heapSize > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (heapSize == 0) throw new NoSuchElementException();
+            int r = heap[0];
+            int value = heads[r];
+            int next = ++pos[r];
+            if (next < runs[r].length) {
+                heads[r] = runs[r][next];
+            } else {
+                heap[0] = heap[--heapSize];
+            }
+            if (heapSize > 1) siftDown(0);
+            return value;
+        }
+
+        private void siftDown(int i) {
+            int r = heap[i];
+            int key = heads[r];
+            int half = heapSize >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int c = heap[child];
+                if (child + 1 < heapSize && heads[heap[child + 1]] < heads[c]) {
+                    c = heap[++child];
+                }
+                if (key <= heads[c]) break;
+                heap[i] = c;
+                i = child;
+            }
+            heap[i] = r;
+        }
+    }
+
+    // Sample usage
+    public static void main(String[] args) throws IOException {
+        int n = 1_000_000;
+        ByteBuffer data = ByteBuffer.allocate(n * Integer.BYTES);
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < n; i++) data.putInt(random.nextInt(1000));
+
+        // Reading from a stream: chunks are sorted while the rest is read
+        InputStream in = new java.io.ByteArrayInputStream(data.array());
+        PrimitiveIterator.OfInt sorted = sortInts(Channels.newChannel(in), ByteOrder.BIG_ENDIAN);
+        System.out.print("First values:");
+        for (int i = 0; i < 10 && sorted.hasNext(); i++) System.out.print(" " + sorted.nextInt());
+        System.out.println();
+
+        // Push API
+        try (IntPipeline pipeline = new IntPipeline(4, null)) {
+            int[] arr = {38, 27, 43, 3, 9, 82, 10};
+            pipeline.addAll(arr, 0, arr.length);
+            pipeline.add(-5);
+            pipeline.finish();
+            System.out.println("Pushed values in " + pipeline.chunkCount() + " chunks, sorted: "
+                    + Arrays.toString(pipeline.stream().toArray()));
+        }
+    }
+}
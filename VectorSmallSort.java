@@ -0,0 +1,146 @@
+/**
+ * VectorSmallSort.java
+ *
+ * Bitonic sorting network for 17 to 256 ints on SIMD registers, the vector kernel of
+ * SmallSort. Built on the jdk.incubator.vector module: compile and run with
+ *   --add-modules jdk.incubator.vector
+ * SmallSort only loads this class when that module is present.
+ *
+ * The range is copied into a per-thread buffer and padded with Integer.MAX_VALUE to
+ * a power of two of at least two vectors. The network then runs in two kinds of
+ * steps, each compare-exchange being a lane-wise min and max:
+ * - distance >= lane count: whole vectors are compared with each other
+ * - distance < lane count: each vector is compared with a lane-permuted copy of
+ *   itself and the min or max is blended into each lane; all such steps of one
+ *   merge run back to back on a vector held in a register
+ *
+ * Time Complexity: O(n log^2 n / L) vector operations for L lanes
+ * Space Complexity: O(1) per call; one buffer of VECTOR_MAX ints per thread
+ * Stable: No
+ */
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorSmallSort implements SmallSort.Kernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    // Narrower vectors do not beat the scalar networks
+    static final int MIN_LANES = 4;
+
+    // PARTNER[x]: lane l reads lane l ^ x
+    private final VectorShuffle<Integer>[] partner;
+
+    // LOWER[b]: lanes l with (l & b) == 0, which keep the minimum of a pair
+    private final VectorMask<Integer>[] lower;
+
+    private final ThreadLocal<int[]> buffer =
+            ThreadLocal.withInitial(() -> new int[Math.max(SmallSort.VECTOR_MAX, 2 * LANES)]);
+
+    /**
+     * Returns true when the preferred species has at least MIN_LANES int lanes; on
+     * narrower hardware SmallSort keeps its scalar path.
+     */
+    static boolean isSupported() {
+        return LANES >= MIN_LANES;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    VectorSmallSort() {
+        partner = new VectorShuffle[LANES];
+        lower = new VectorMask[LANES];
+        for (int x = 1; x < LANES; x++) {
+            int bit = x;
+            partner[x] = VectorShuffle.fromOp(SPECIES, l -> l ^ bit);
+            boolean[] keepMin = new boolean[LANES];
+            for (int l = 0; l < LANES; l++) keepMin[l] = (l & bit) == 0;
+            lower[x] = VectorMask.fromArray(SPECIES, keepMin, 0);
+        }
+    }
+
+    @Override
+    public void sort(int[] arr, int from, int n) {
+        int size = Math.max(2 * LANES, Integer.highestOneBit(n - 1) << 1);
+        int[] buf = buffer.get();
+        System.arraycopy(arr, from, buf, 0, n);
+        for (int i = n; i < size; i++) buf[i] = Integer.MAX_VALUE;
+
+        // Step 1: Sort every vector on its own
+        for (int v = 0; v < size; v += LANES) {
+            IntVector x = IntVector.fromArray(SPECIES, buf, v);
+            for (int k = 2; k <= LANES; k <<= 1) {
+                x = exchange(x, k - 1, k >> 1);
+                x = clean(x, k >> 2);
+            }
+            x.intoArray(buf, v);
+        }
+
+        // Step 2: Merge sorted blocks of k / 2 into sorted blocks of k
+        for (int k = 2 * LANES; k <= size; k <<= 1) {
+            flip(buf, size, k);
+            for (int j = k >> 2; j >= LANES; j >>= 1) {
+                halfClean(buf, size, j);
+            }
+            for (int v = 0; v < size; v += LANES) {
+                IntVector x = IntVector.fromArray(SPECIES, buf, v);
+                clean(x, LANES >> 1).intoArray(buf, v);
+            }
+        }
+
+        System.arraycopy(buf, 0, arr, from, n);
+    }
+
+    /**
+     * Compares lane l with lane l ^ x and keeps the minimum in the lanes where bit b
+     * is clear.
+     */
+    private IntVector exchange(IntVector v, int x, int b) {
+        IntVector p = v.rearrange(partner[x]);
+        return v.max(p).blend(v.min(p), lower[b]);
+    }
+
+    /**
+     * Runs the in-register half-cleaners with distances j, j / 2, ..., 1.
+     */
+    private IntVector clean(IntVector v, int j) {
+        for (; j >= 1; j >>= 1) {
+            v = exchange(v, j, j);
+        }
+        return v;
+    }
+
+    /**
+     * First step of a merge into blocks of k > LANES: element i of each block is
+     * compared with element k - 1 - i, which pairs a vector with the lane-reversed
+     * mirror vector at the other end of the block.
+     */
+    private void flip(int[] buf, int size, int k) {
+        VectorShuffle<Integer> reverse = partner[LANES - 1];
+        for (int block = 0; block < size; block += k) {
+            for (int lo = block, hi = block + k - LANES; lo < hi; lo += LANES, hi -= LANES) {
+                IntVector a = IntVector.fromArray(SPECIES, buf, lo);
+                IntVector b = IntVector.fromArray(SPECIES, buf, hi).rearrange(reverse);
+                a.min(b).intoArray(buf, lo);
+                a.max(b).rearrange(reverse).intoArray(buf, hi);
+            }
+        }
+    }
+
+    /**
+     * Compares the vectors at distance j >= LANES, minimum to the lower one.
+     */
+    private static void halfClean(int[] buf, int size, int j) {
+        for (int block = 0; block < size; block += 2 * j) {
+            for (int lo = block; lo < block + j; lo += LANES) {
+                IntVector a = IntVector.fromArray(SPECIES, buf, lo);
+                IntVector b = IntVector.fromArray(SPECIES, buf, lo + j);
+                a.min(b).intoArray(buf, lo);
+                a.max(b).intoArray(buf, lo + j);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+import benchmarks.FloatSorter;
+import benchmarks.IntSorter;
+import benchmarks.SorterLookup;
+
+/**
+ * SortRegistry.java
+ *
+ * Maps the benchmark algorithm names to the sorters at the repository root.
+ * Lives in the default package so that it can call them directly.
+ */
+
+public class SortRegistry implements SorterLookup {
+
+    @Override
+    public IntSorter intSorter(String name) {
+        switch (name) {
+            case "copy": return arr -> { };
+            case "adaptive": return Sorter::sort;
+            case "bubble": return BubbleSort::bubbleSort;
+            case "insertion": return InsertionSort::insertionSort;
+            case "selection": return SelectionSort::selectionSort;
+            case "merge": return arr -> MergeSort.mergeSort(arr, 0, arr.length - 1);
+            case "mergeParallel": return MergeSort::parallelMergeSort;
+            case "mergeTim": return MergeSort::timSort;
+            case "mergeBuffered": return MergeSort::bufferedMergeSort;
+            case "quickLast": return arr -> QuickSort.quickSortLastPivot(arr, 0, arr.length - 1);
+            case "quickFirst": return arr -> QuickSort.quickSortFirstPivot(arr, 0, arr.length - 1);
+            case "quickRandom": return arr -> QuickSort.quickSortRandomPivot(arr, 0, arr.length - 1);
+            case "quickMid": return arr -> QuickSort.quickSortMidPivot(arr, 0, arr.length - 1);
+            case "quickIntro": return arr -> QuickSort.quickSortIntro(arr, 0, arr.length - 1);
+            case "quickBlock": return arr -> QuickSort.quickSortBlock(arr, 0, arr.length - 1);
+            case "sampleParallel": return SampleSort::parallelSampleSort;
+            case "small": return arr -> SmallSort.sort(arr, 0, arr.length);
+            case "smallScalar": return arr -> SmallSort.sortScalar(arr, 0, arr.length);
+            case "heap": return HeapSort::heapSort;
+            case "heapBottomUp": return HeapSort::heapSortBottomUp;
+            case "heap4": return arr -> HeapSort.heapSortBottomUp(arr, 0, arr.length - 1, 4);
+            case "heap8": return arr -> HeapSort.heapSortBottomUp(arr, 0, arr.length - 1, 8);
+            case "counting": return CountingSort::countSort;
+            case "countingUnstable": return CountingSort::countSortUnstable;
+            case "countingParallel": return CountingSort::parallelCountSort;
+            case "radix": return RadixSort::radixSort;
+            case "radixSigned": return RadixSort::radixSortSigned;
+            case "radixParallel": return RadixSort::parallelRadixSortSigned;
+            case "radixMsd": return RadixSort::msdRadixSort;
+            case "mergeContext": return arr -> MergeSort.mergeSort(arr, 0, arr.length - 1, SortContext.current());
+            case "mergeBufferedContext": return arr -> MergeSort.bufferedMergeSort(arr, SortContext.current());
+            case "countingContext": return arr -> CountingSort.countSort(arr, SortContext.current());
+            case "countingUnstableContext": return arr -> CountingSort.countSortUnstable(arr, SortContext.current());
+            case "radixContext": return arr -> RadixSort.radixSort(arr, SortContext.current());
+            case "radixSignedContext": return arr -> RadixSort.radixSortSigned(arr, RadixSort.DEFAULT_BITS, SortContext.current());
+            default: return null;
+        }
+    }
+
+    @Override
+    public FloatSorter floatSorter(String name) {
+        switch (name) {
+            case "bucket": return BucketSort::bucketSort;
+            case "bucketParallel": return BucketSort::parallelBucketSort;
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package benchmarks;
+
+/**
+ * Sorts a float array in place (see IntSorter).
+ */
+@FunctionalInterface
+public interface FloatSorter {
+
+    void sort(float[] arr);
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * InputDistribution.java
+ *
+ * Input shapes used by the sorting benchmarks. Every generator returns
+ * non-negative values in [0, bound) so that CountingSort and the base-10
+ * RadixSort can run on the same data as the comparison sorts.
+ */
+
+public enum InputDistribution {
+
+    // Independent uniform values
+    UNIFORM {
+        @Override
+        void fill(int[] arr, int bound, SplittableRandom rnd) {
+            for (int i = 0; i < arr.length; i++) arr[i] = rnd.nextInt(bound);
+        }
+    },
+
+    // Already in ascending order
+    SORTED {
+        @Override
+        void fill(int[] arr, int bound, SplittableRandom rnd) {
+            UNIFORM.fill(arr, bound, rnd);
+            Arrays.sort(arr);
+        }
+    },
+
+    // Descending order
+    REVERSE {
+        @Override
+        void fill(int[] arr, int bound, SplittableRandom rnd) {
+            SORTED.fill(arr, bound, rnd);
+            for (int i = 0, j = arr.length - 1; i < j; i++, j--) {
+                int tmp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = tmp;
+            }
+        }
+    },
+
+    // Ascending runs of about sqrt(n) elements each
+    SAWTOOTH {
+        @Override
+        void fill(int[] arr, int bound, SplittableRandom rnd) {
+            int period = Math.max(2, (int) Math.sqrt(arr.length));
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = (int) ((long) (i % period) * bound / period);
+            }
+        }
+    },
+
+    // Only 16 distinct values
+    FEW_UNIQUE {
+        @Override
+        void fill(int[] arr, int bound, SplittableRandom rnd) {
+            int step = Math.max(1, bound / 16);
+            for (int i = 0; i < arr.length; i++) arr[i] = rnd.nextInt(16) * step % bound;
+        }
+    },
+
+    // Zipf(s = 1) over the ranks, so a few values dominate
+    ZIPFIAN {
+        @Override
+        void fill(int[] arr, int bound, SplittableRandom rnd) {
+            int ranks = Math.min(bound, 1 << 20);
+            double[] cdf = new double[ranks];
+            double sum = 0;
+            for (int k = 0; k < ranks; k++) {
+                sum += 1.0 / (k + 1);
+                cdf[k] = sum;
+            }
+            for (int i = 0; i < arr.length; i++) {
+                int rank = Arrays.binarySearch(cdf, rnd.nextDouble() * sum);
+                arr[i] = rank >= 0 ? rank : Math.min(-rank - 1, ranks - 1);
+            }
+        }
+    },
+
+    // Ascending first half, descending second half
+    ORGAN_PIPE {
+        @Override
+        void fill(int[] arr, int bound, SplittableRandom rnd) {
+            int n = arr.length;
+            int half = Math.max(1, n / 2);
+            for (int i = 0; i < n; i++) {
+                int pos = i < half ? i : n - 1 - i;
+                arr[i] = (int) ((long) pos * bound / half);
+            }
+        }
+    };
+
+    /**
+     * Fills arr with values in [0, bound) following this distribution.
+     */
+    abstract void fill(int[] arr, int bound, SplittableRandom rnd);
+
+    /**
+     * Generates n values with a fixed seed so every run sees the same input.
+     */
+    public int[] generate(int n) {
+        int[] arr = new int[n];
+        fill(arr, Math.max(n, 16), new SplittableRandom(42));
+        return arr;
+    }
+}
@@ -0,0 +1,11 @@
+package benchmarks;
+
+/**
+ * Sorts an int array in place. Implemented by lambdas in SortRegistry,
+ * which bridges the default-package algorithm classes into this package.
+ */
+@FunctionalInterface
+public interface IntSorter {
+
+    void sort(int[] arr);
+}
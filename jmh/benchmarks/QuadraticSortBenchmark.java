@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * QuadraticSortBenchmark.java
+ *
+ * JMH benchmark for the O(n^2) sorters. Sizes stop at 10^5 because a single
+ * Bubble Sort of 10^6 elements already takes minutes.
+ *
+ * Run with:
+ *   java -jar target/benchmarks.jar QuadraticSortBenchmark -prof gc
+ */
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QuadraticSortBenchmark {
+
+    @Param({"bubble", "insertion", "selection"})
+    public String algorithm;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"UNIFORM", "SORTED", "REVERSE", "SAWTOOTH", "FEW_UNIQUE", "ZIPFIAN", "ORGAN_PIPE"})
+    public InputDistribution distribution;
+
+    private IntSorter sorter;
+    private int[] source;
+    private int[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sorter = SorterLookup.load().intSorter(algorithm);
+        if (sorter == null) {
+            throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+        source = distribution.generate(size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        sorter.sort(work);
+        return work;
+    }
+}
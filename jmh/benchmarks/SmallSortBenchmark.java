@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SmallSortBenchmark.java
+ *
+ * Base-case kernels on 8 to 256 elements: insertion sort against SmallSort's
+ * sorting networks ("smallScalar") and its vector kernel ("small"). The fork
+ * enables the jdk.incubator.vector module; without it "small" runs the scalar path.
+ * Every invocation sorts the same input, which lets the branch predictor learn
+ * insertion sort's branches; inside a real sort each leaf is new data.
+ *
+ * Run with:
+ *   java -jar target/benchmarks.jar SmallSortBenchmark
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class SmallSortBenchmark {
+
+    @Param({"insertion", "smallScalar", "small"})
+    public String algorithm;
+
+    @Param({"8", "16", "32", "64", "128", "256"})
+    public int size;
+
+    @Param({"UNIFORM", "SORTED", "FEW_UNIQUE"})
+    public InputDistribution distribution;
+
+    private IntSorter sorter;
+    private int[] source;
+    private int[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sorter = SorterLookup.load().intSorter(algorithm);
+        if (sorter == null) throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        source = distribution.generate(size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        sorter.sort(work);
+        return work;
+    }
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SortBenchmark.java
+ *
+ * JMH benchmark for the O(n log n) and linear-time sorters, from 10 to 10^8 elements.
+ * Each invocation copies the pristine input into a preallocated work array and sorts
+ * it, so `-prof gc` reports only the allocation done by the sorter itself
+ * ("copy" is the baseline to subtract).
+ *
+ * Run with:
+ *   mvn -Pjmh package
+ *   java -jar target/benchmarks.jar SortBenchmark -prof gc
+ *   java -jar target/benchmarks.jar SortBenchmark -p algorithm=quickIntro -p size=1000000
+ *
+ * Note: the first/last pivot QuickSort variants overflow the stack on large
+ * sorted inputs; JMH reports those combinations as failures and moves on.
+ */
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-Xss64m", "--add-modules=jdk.incubator.vector"})
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"copy", "adaptive", "merge", "mergeParallel", "mergeTim",
+            "quickLast", "quickFirst", "quickRandom", "quickMid", "quickIntro", "quickBlock", "sampleParallel",
+            "heap", "heapBottomUp", "heap4", "heap8",
+            "counting", "countingUnstable", "countingParallel",
+            "radix", "radixSigned", "radixParallel", "radixMsd",
+            "bucket", "bucketParallel"})
+    public String algorithm;
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"UNIFORM", "SORTED", "REVERSE", "SAWTOOTH", "FEW_UNIQUE", "ZIPFIAN", "ORGAN_PIPE"})
+    public InputDistribution distribution;
+
+    private IntSorter intSorter;
+    private FloatSorter floatSorter;
+    private int[] source;
+    private int[] work;
+    private float[] floatSource;
+    private float[] floatWork;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SorterLookup lookup = SorterLookup.load();
+        intSorter = lookup.intSorter(algorithm);
+        floatSorter = lookup.floatSorter(algorithm);
+        if (intSorter == null && floatSorter == null) {
+            throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+
+        source = distribution.generate(size);
+        work = new int[size];
+
+        // BucketSort expects floats in [0, 1)
+        if (floatSorter != null) {
+            float scale = Math.max(size, 16);
+            floatSource = new float[size];
+            for (int i = 0; i < size; i++) floatSource[i] = source[i] / scale;
+            floatWork = new float[size];
+        }
+    }
+
+    @Benchmark
+    public Object sort() {
+        if (floatSorter != null) {
+            System.arraycopy(floatSource, 0, floatWork, 0, size);
+            floatSorter.sort(floatWork);
+            return floatWork;
+        }
+
+        System.arraycopy(source, 0, work, 0, size);
+        intSorter.sort(work);
+        return work;
+    }
+}
@@ -0,0 +1,118 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * SortContextBenchmark.java
+ *
+ * Repeated small sorts (50 to 5000 elements) with and without a pooled SortContext.
+ * The "*Context" sorters borrow their buffers from SortContext.current(), so once
+ * warmed up they should allocate nothing per sort; the others allocate scratch
+ * and count arrays on every call.
+ *
+ * Run with:
+ *   java -jar target/benchmarks.jar SortContextBenchmark -prof gc
+ *
+ * main() is the zero-allocation check: it runs only the context sorters under the
+ * GC profiler and exits with status 1 if any of them allocates in steady state.
+ *   java -cp target/benchmarks.jar benchmarks.SortContextBenchmark
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class SortContextBenchmark {
+
+    // Sorters that must not allocate once their context has grown
+    static final String[] CONTEXT_SORTERS = {
+        "mergeContext", "mergeBufferedContext", "countingContext",
+        "countingUnstableContext", "radixContext", "radixSignedContext"
+    };
+
+    // gc.alloc.rate.norm is an estimate; anything below one byte per sort is noise
+    static final double MAX_BYTES_PER_SORT = 1.0;
+
+    @Param({"merge", "mergeContext", "mergeBuffered", "mergeBufferedContext",
+            "counting", "countingContext", "countingUnstable", "countingUnstableContext",
+            "radix", "radixContext", "radixSigned", "radixSignedContext"})
+    public String algorithm;
+
+    @Param({"50", "500", "5000"})
+    public int size;
+
+    @Param({"UNIFORM", "FEW_UNIQUE"})
+    public InputDistribution distribution;
+
+    private IntSorter sorter;
+    private int[] source;
+    private int[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sorter = SorterLookup.load().intSorter(algorithm);
+        if (sorter == null) throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        source = distribution.generate(size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        sorter.sort(work);
+        return work;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SortContextBenchmark.class.getSimpleName() + ".sort")
+                .param("algorithm", CONTEXT_SORTERS)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        List<String> failures = new ArrayList<>();
+        for (RunResult run : new Runner(options).run()) {
+            BenchmarkParams params = run.getParams();
+            Result<?> allocated = run.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (allocated == null) throw new IllegalStateException("GC profiler reported no allocation rate");
+
+            double bytesPerSort = allocated.getScore();
+            if (bytesPerSort >= MAX_BYTES_PER_SORT) {
+                failures.add(params.getParam("algorithm") + " size=" + params.getParam("size")
+                        + " " + params.getParam("distribution") + ": " + bytesPerSort + " B/op");
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            System.err.println("Steady-state allocation detected:");
+            failures.forEach(f -> System.err.println("  " + f));
+            System.exit(1);
+        }
+        System.out.println("All context sorters ran allocation-free");
+    }
+}
@@ -0,0 +1,31 @@
+package benchmarks;
+
+/**
+ * Resolves sorter names to implementations.
+ *
+ * JMH does not allow benchmarks in the default package, and a named package cannot
+ * reference default-package classes, so the algorithms are reached through the
+ * default-package SortRegistry, loaded reflectively once per trial. The returned
+ * sorter is the only implementation seen at the call site inside a fork, so the
+ * JIT inlines it like a direct call.
+ */
+public interface SorterLookup {
+
+    /**
+     * Returns the int sorter with the given name, or null if the name is unknown.
+     */
+    IntSorter intSorter(String name);
+
+    /**
+     * Returns the float sorter with the given name, or null if the name is unknown.
+     */
+    FloatSorter floatSorter(String name);
+
+    static SorterLookup load() {
+        try {
+            return (SorterLookup) Class.forName("SortRegistry").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("SortRegistry is not on the classpath", e);
+        }
+    }
+}